@@ -0,0 +1,70 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import com.aeongames.find.Find;
+import com.aeongames.find.Rules.FindDirectory;
+import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.FindSize;
+import com.aeongames.find.Rules.Rule;
+import com.aeongames.utils.sizes;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures a end to end search with {@link Find#find(Path, List)} using the
+ * same rules as the command line example (-type f -size 1mb -ext jpg)
+ *
+ * @author Eduardo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindBenchmark {
+
+    private Path root;
+    private List<Rule> rules;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = new TreeGenerator(42, 4, 6, 20).generate();
+        rules = List.of(FindDirectory.RegularFile, new FindSize(1, sizes.MegaByte), new FindExtension("jpg"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TreeGenerator.delete(root);
+    }
+
+    @Benchmark
+    public List<Path> find() {
+        return Find.find(root, rules);
+    }
+}
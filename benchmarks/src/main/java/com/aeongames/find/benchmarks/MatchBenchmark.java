@@ -0,0 +1,119 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.FindDirectory;
+import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.FindName;
+import com.aeongames.find.Rules.FindSize;
+import com.aeongames.find.Rules.NotRule;
+import com.aeongames.find.Rules.OrRule;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures the cost per entry of {@link RuleExecutor#MatchRule(Path,
+ * BasicFileAttributes, int)} with the rules evaluated on the adaptive loop
+ * against the rules compiled into a single predicate. the entries (path and
+ * attributes) are read once. so there is no I/O.
+ *
+ * @author Eduardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    /**
+     * whenever the loop adapts the rule order. without it both evaluate the
+     * rules on the same order. so only the dispatch differs.
+     */
+    @Param({"true", "false"})
+    public boolean adaptive;
+
+    /**
+     * list: the flat rules (-type f -size 1kb -ext jpg,png,txt -name file1.* RE)
+     * expression: ( -ext jpg -or -ext png -size 1kb ) -not -name file1.* RE
+     */
+    @Param({"list", "expression"})
+    public String rules;
+
+    private Path root;
+    private Path[] paths;
+    private BasicFileAttributes[] attributes;
+    private RuleExecutor executor;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = new TreeGenerator(42, 3, 5, 40).generate();
+        var entries = new ArrayList<Path>();
+        try (var walk = Files.walk(root)) {
+            walk.skip(1).forEach(entries::add);
+        }
+        paths = entries.toArray(Path[]::new);
+        attributes = new BasicFileAttributes[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            attributes[i] = Files.readAttributes(paths[i], BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        List<Rule> query = switch (rules) {
+            case "list" -> List.of(FindDirectory.RegularFile, new FindSize(1024),
+                    new FindExtension(List.of("jpg", "png", "txt"), false), new FindName("file1.*", true));
+            case "expression" -> List.of(new OrRule(new FindExtension("jpg"), new FindExtension("png"), new FindSize(1024)),
+                    NotRule.negate(new FindName("file1.*", true)));
+            default -> throw new IllegalArgumentException(rules);
+        };
+        executor = new RuleExecutor(query);
+        executor.setAdaptiveRuleOrder(adaptive);
+        executor.setCompileRules(compiled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TreeGenerator.delete(root);
+    }
+
+    @Benchmark
+    public boolean matchEntry() throws IOException {
+        var index = next;
+        next = index + 1 == paths.length ? 0 : index + 1;
+        return executor.MatchRule(paths[index], attributes[index], 1);
+    }
+}
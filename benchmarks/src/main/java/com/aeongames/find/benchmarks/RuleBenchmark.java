@@ -0,0 +1,128 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import com.aeongames.find.Rules.FindDirectory;
+import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.FindName;
+import com.aeongames.find.Rules.FindSize;
+import com.aeongames.find.Rules.Rule;
+import com.aeongames.utils.sizes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures the cost per entry of each {@link Rule}. the entries (path and
+ * attributes) of a synthetic tree are read once. each invocation matches a
+ * single entry. so the score is the matching cost without any I/O.
+ *
+ * @author Eduardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleBenchmark {
+
+    /**
+     * the rule to measure.
+     * nameRegexRecompiled is the cost of compiling the regular expression for
+     * each entry (how FindName used to work) to compare with nameRegex.
+     */
+    @Param({"directory", "extension", "extensions20", "name", "nameRegex", "nameRegexRecompiled",
+        "nameRegexSuffix", "nameGlob", "size"})
+    public String rule;
+
+    private Path root;
+    private Path[] paths;
+    private BasicFileAttributes[] attributes;
+    /**
+     * how each entry is matched. chosen on the setup so the measured method
+     * does not check the parameter.
+     */
+    private EntryMatcher matcher;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = new TreeGenerator(42, 3, 5, 40).generate();
+        var entries = new ArrayList<Path>();
+        try (var walk = Files.walk(root)) {
+            walk.skip(1).forEach(entries::add);
+        }
+        paths = entries.toArray(Path[]::new);
+        attributes = new BasicFileAttributes[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            attributes[i] = Files.readAttributes(paths[i], BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        if (rule.equals("nameRegexRecompiled")) {
+            matcher = (path, attributes) -> Pattern.matches("file[0-9]+_[a-m]+\\.(jpg|png)",
+                    path.getFileName().toString());
+            return;
+        }
+        Rule selected = switch (rule) {
+            case "directory" -> FindDirectory.RegularFile;
+            case "extension" -> new FindExtension("jpg");
+            case "extensions20" -> new FindExtension(TreeGenerator.DEFAULT_EXTENSIONS, true);
+            case "name" -> new FindName("file7_abc.txt");
+            case "nameRegex" -> new FindName("file[0-9]+_[a-m]+\\.(jpg|png)", true);
+            case "nameRegexSuffix" -> new FindName(".*\\.jpg", true);
+            case "nameGlob" -> new FindName("file*_[a-m]*.{jpg,png}", FindName.MatchType.GLOB);
+            case "size" -> new FindSize(1, sizes.MegaByte);
+            default -> throw new IllegalArgumentException(rule);
+        };
+        matcher = selected::MatchRule;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TreeGenerator.delete(root);
+    }
+
+    @Benchmark
+    public boolean matchEntry() throws IOException {
+        var index = next;
+        next = index + 1 == paths.length ? 0 : index + 1;
+        return matcher.matches(paths[index], attributes[index]);
+    }
+
+    /**
+     * matches a entry. a rule or the regular expression compiled each time.
+     */
+    @FunctionalInterface
+    private interface EntryMatcher {
+
+        boolean matches(Path path, BasicFileAttributes attributes) throws IOException;
+    }
+}
@@ -0,0 +1,105 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.FindDirectory;
+import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.FindName;
+import com.aeongames.find.Rules.FindSize;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * measures {@link RuleExecutor#MatchRule(Path, BasicFileAttributes, int)}
+ * with a single executor shared by several threads. (as the workers of the
+ * parallel and virtual modes share it) so the cost of the bookkeeping of the
+ * adaptive order is compared with the fixed order under contention.
+ *
+ * @author Eduardo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SharedMatchBenchmark {
+
+    @Param({"true", "false"})
+    public boolean adaptive;
+
+    private Path root;
+    private Path[] paths;
+    private BasicFileAttributes[] attributes;
+    private RuleExecutor executor;
+
+    /**
+     * the next entry of each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next = 0;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = new TreeGenerator(42, 3, 5, 40).generate();
+        var entries = new ArrayList<Path>();
+        try (var walk = Files.walk(root)) {
+            walk.skip(1).forEach(entries::add);
+        }
+        paths = entries.toArray(Path[]::new);
+        attributes = new BasicFileAttributes[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            attributes[i] = Files.readAttributes(paths[i], BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        executor = new RuleExecutor(List.of(FindDirectory.RegularFile, new FindSize(1024),
+                new FindExtension(List.of("jpg", "png", "txt"), false), new FindName("file1.*", true)));
+        executor.setAdaptiveRuleOrder(adaptive);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TreeGenerator.delete(root);
+    }
+
+    @Benchmark
+    public boolean matchEntry(Cursor cursor) throws IOException {
+        var index = cursor.next;
+        cursor.next = index + 1 == paths.length ? 0 : index + 1;
+        return executor.MatchRule(paths[index], attributes[index], 1);
+    }
+}
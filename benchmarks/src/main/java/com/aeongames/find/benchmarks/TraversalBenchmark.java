@@ -0,0 +1,85 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import com.aeongames.find.ExecutionMode;
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * measures a whole walk of a synthetic tree with {@link RuleExecutor} on each
+ * execution mode. the tree is hot on the page cache so this measures the
+ * traversal overhead rather than the disk.
+ *
+ * @author Eduardo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraversalBenchmark {
+
+    @Param({"SEQUENTIAL", "PARALLEL", "VIRTUAL"})
+    public ExecutionMode mode;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"6"})
+    public int fanOut;
+
+    @Param({"20"})
+    public int filesPerFolder;
+
+    private Path root;
+    private List<Rule> rules;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = new TreeGenerator(42, depth, fanOut, filesPerFolder).generate();
+        rules = List.of(new FindExtension("jpg"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TreeGenerator.delete(root);
+    }
+
+    @Benchmark
+    public void executeRule(Blackhole blackhole) throws IOException {
+        var executor = new RuleExecutor(rules);
+        executor.setExecutionMode(mode);
+        executor.ExecuteRule(root, true, blackhole::consume);
+    }
+}
@@ -0,0 +1,194 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.benchmarks;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * generates reproducible synthetic folder trees to benchmark against. the same
+ * seed and settings always generates the same names, extensions and sizes.
+ * <p>
+ * each folder (up to the depth) has fanOut subfolders and filesPerFolder
+ * files. the extensions are picked from the provided list with a skewed
+ * distribution (the first ones are the most common) and a few files have no
+ * extension or several dots. the files are sparse so big sizes are cheap.
+ *
+ * @author Eduardo
+ */
+public final class TreeGenerator {
+
+    /**
+     * a mix of common extensions. the first ones are the most common.
+     */
+    public static final List<String> DEFAULT_EXTENSIONS = List.of(
+            "txt", "jpg", "png", "java", "class", "xml", "json", "log", "pdf", "mp4",
+            "gz", "zip", "jar", "html", "css", "js", "md", "csv", "iso", "mkv");
+
+    private final long Seed;
+    private final int Depth;
+    private final int FanOut;
+    private final int FilesPerFolder;
+    private final List<String> Extensions;
+    private final long MaxFileSize;
+
+    /**
+     * creates a generator.
+     *
+     * @param seed the seed for the names, extensions and sizes.
+     * @param depth how many levels of folders under the root.
+     * @param fanOut the subfolders of each folder.
+     * @param filesPerFolder the files of each folder.
+     * @param extensions the extensions to pick from.
+     * @param maxFileSize the maximal size of a file (in bytes)
+     */
+    public TreeGenerator(long seed, int depth, int fanOut, int filesPerFolder,
+            List<String> extensions, long maxFileSize) {
+        Seed = seed;
+        Depth = depth;
+        FanOut = fanOut;
+        FilesPerFolder = filesPerFolder;
+        Extensions = List.copyOf(extensions);
+        MaxFileSize = maxFileSize;
+    }
+
+    /**
+     * a generator with the default extensions and files up to 4MB.
+     */
+    public TreeGenerator(long seed, int depth, int fanOut, int filesPerFolder) {
+        this(seed, depth, fanOut, filesPerFolder, DEFAULT_EXTENSIONS, 4L << 20);
+    }
+
+    /**
+     * the amount of entries (folders and files, without the root) the tree
+     * will have.
+     *
+     * @return the amount of entries
+     */
+    public long entryCount() {
+        long folders = 0, level = 1;
+        for (int i = 0; i < Depth; i++) {
+            level *= FanOut;
+            folders += level;
+        }
+        return folders + (folders + 1) * FilesPerFolder;
+    }
+
+    /**
+     * generates the tree on a new temporary folder.
+     *
+     * @return the root of the generated tree.
+     * @throws IOException if the tree cannot be written.
+     */
+    public Path generate() throws IOException {
+        var root = Files.createTempDirectory("find-bench");
+        generate(root);
+        return root;
+    }
+
+    /**
+     * generates the tree under the provided (existing) folder.
+     *
+     * @param root the folder where the tree is generated.
+     * @throws IOException if the tree cannot be written.
+     */
+    public void generate(Path root) throws IOException {
+        fill(root, 0, new Random(Seed));
+    }
+
+    private void fill(Path folder, int level, Random random) throws IOException {
+        for (int i = 0; i < FilesPerFolder; i++) {
+            var file = folder.resolve(fileName(i, random));
+            try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+                //skewed towards small files. as real trees are.
+                var fraction = random.nextDouble();
+                raf.setLength((long) (MaxFileSize * fraction * fraction * fraction));
+            }
+        }
+        if (level == Depth) {
+            return;
+        }
+        for (int i = 0; i < FanOut; i++) {
+            var child = folder.resolve("dir" + level + "_" + i);
+            Files.createDirectory(child);
+            fill(child, level + 1, random);
+        }
+    }
+
+    private String fileName(int index, Random random) {
+        var name = new StringBuilder("file").append(index).append('_');
+        var length = 3 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        var kind = random.nextInt(20);
+        if (kind == 0) {
+            //no extension
+            return name.toString();
+        }
+        if (kind == 1) {
+            name.append(".backup");
+        }
+        return name.append('.').append(pickExtension(random)).toString();
+    }
+
+    /**
+     * picks a extension with a Zipf like distribution.
+     */
+    private String pickExtension(Random random) {
+        double total = 0;
+        for (int i = 0; i < Extensions.size(); i++) {
+            total += 1d / (i + 1);
+        }
+        var target = random.nextDouble() * total;
+        for (int i = 0; i < Extensions.size(); i++) {
+            target -= 1d / (i + 1);
+            if (target <= 0) {
+                return Extensions.get(i);
+            }
+        }
+        return Extensions.get(Extensions.size() - 1);
+    }
+
+    /**
+     * deletes a generated tree.
+     *
+     * @param root the root of the tree to delete.
+     * @throws IOException if the tree cannot be deleted.
+     */
+    public static void delete(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,172 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.find.Rules.Rule;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * keeps the order on which the rules of a conjunction are evaluated. it
+ * tracks how often each rule rejects a path and periodically reorders them so
+ * the rules that are cheap and reject the most run first. the result of the
+ * conjunction is the same on any order, only the amount of work changes.
+ * <p>
+ * only a sample of the entries is recorded (see {@link #sample()}) so the
+ * workers of a parallel search do not all update the same counters for each
+ * entry. the rejection rates of a uniform sample are the same.
+ * <p>
+ * it is safe to use from several threads at once.
+ *
+ * @author Eduardo
+ */
+final class AdaptiveRuleOrder {
+
+    /**
+     * one of each this many entries is recorded.
+     */
+    private static final int SAMPLE_RATE = 16;
+    /**
+     * the amount of sampled entries between each reorder. (about 1024
+     * matched entries)
+     */
+    private static final long REORDER_INTERVAL = 1024 / SAMPLE_RATE;
+
+    private final Rule[] Rules;
+    private final LongAdder[] Evaluations;
+    private final LongAdder[] Rejections;
+    private final AtomicLong Sampled = new AtomicLong();
+    private final boolean Adaptive;
+    /**
+     * the original index of the rules on the current order. it is replaced
+     * (never modified) so readers always see a consistent order.
+     */
+    private volatile int[] OrderIndex;
+
+    AdaptiveRuleOrder(List<Rule> rules, boolean adaptive) {
+        Rules = rules.toArray(Rule[]::new);
+        Evaluations = new LongAdder[Rules.length];
+        Rejections = new LongAdder[Rules.length];
+        for (int i = 0; i < Rules.length; i++) {
+            Evaluations[i] = new LongAdder();
+            Rejections[i] = new LongAdder();
+        }
+        Adaptive = adaptive;
+        OrderIndex = new int[Rules.length];
+        Arrays.setAll(OrderIndex, i -> i);
+        if (Adaptive) {
+            reorder();
+        }
+    }
+
+    /**
+     * the original index of the rules on the order they should be evaluated.
+     * the array must not be modified.
+     */
+    int[] order() {
+        return OrderIndex;
+    }
+
+    /**
+     * the rule at the provided original index.
+     */
+    Rule rule(int index) {
+        return Rules[index];
+    }
+
+    /**
+     * whenever the evaluation of the next entry is recorded. it only touches
+     * state of the calling thread. so the entries that are not sampled cost
+     * nothing.
+     *
+     * @return true if the entry must be recorded (and then
+     * {@link #entryDone()} called)
+     */
+    boolean sample() {
+        return Adaptive && ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+    }
+
+    /**
+     * records the evaluation of a rule on a sampled entry.
+     *
+     * @param index the original index of the rule
+     * @param rejected whenever the rule rejected the path
+     */
+    void record(int index, boolean rejected) {
+        Evaluations[index].increment();
+        if (rejected) {
+            Rejections[index].increment();
+        }
+    }
+
+    /**
+     * notifies that a sampled entry was fully evaluated. every so often this
+     * recalculates the order.
+     */
+    void entryDone() {
+        if (Adaptive && Sampled.incrementAndGet() % REORDER_INTERVAL == 0) {
+            reorder();
+        }
+    }
+
+    private synchronized void reorder() {
+        Integer[] indexes = new Integer[Rules.length];
+        Arrays.setAll(indexes, i -> i);
+        //a stable sort. so rules with the same score keep the user order.
+        Arrays.sort(indexes, Comparator.comparingDouble(this::score));
+        var newIndex = new int[Rules.length];
+        for (int i = 0; i < indexes.length; i++) {
+            newIndex[i] = indexes[i];
+        }
+        OrderIndex = newIndex;
+    }
+
+    /**
+     * the expected cost to reject a path with this rule. the cost of the rule
+     * divided by the chance it rejects. lower is better.
+     */
+    private double score(int index) {
+        return Rules[index].getCost().getWeight() / rejectionRate(index);
+    }
+
+    /**
+     * the observed rejection rate. it is smoothed so a rule that was not yet
+     * evaluated is assumed to reject half of the time.
+     */
+    private double rejectionRate(int index) {
+        return (Rejections[index].sum() + 1d) / (Evaluations[index].sum() + 2d);
+    }
+
+    /**
+     * describes the current order with the cost and observed rejection rate of
+     * each rule. intended for debugging.
+     *
+     * @return a multi line description of the rules order.
+     */
+    String describe() {
+        var builder = new StringBuilder("rule evaluation order");
+        builder.append(Adaptive ? " (adaptive)" : " (fixed)");
+        for (int index : OrderIndex) {
+            builder.append(System.lineSeparator())
+                    .append("  ").append(Rules[index].getRuleName())
+                    .append(" cost ").append(Rules[index].getCost())
+                    .append(" sampled ").append(Evaluations[index].sum())
+                    .append(" rejected ").append(Rejections[index].sum());
+        }
+        return builder.toString();
+    }
+}
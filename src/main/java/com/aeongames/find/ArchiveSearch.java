@@ -0,0 +1,264 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipException;
+
+/**
+ * looks inside the zip archives (jar, war...) found while walking the tree.
+ * the entries are read from the central directory of the archive (see
+ * {@link ZipDirectory}) and matched with the rules of the executor as if they
+ * were files. their path is the archive path followed by ! and the entry name
+ * (like /libs/app.jar!/META-INF/MANIFEST.MF) and their attributes have the
+ * uncompressed size and the time of the entry. nothing is extracted. the
+ * nested archives are read on memory (if requested) so the rules that need
+ * the real file (like the content) do not match entries.
+ * <p>
+ * the folders inside the archive are pruned by the rules like the ones of
+ * the tree. (see {@link RuleExecutor#ShouldDescend}) the entries are not on
+ * any order so each entry checks the folders above it.
+ *
+ * @author Eduardo
+ */
+final class ArchiveSearch {
+
+    private static final Logger LOGGER = Logger.getLogger(ArchiveSearch.class.getName());
+    /**
+     * the extensions of the archives to look into.
+     */
+    private static final Set<String> EXTENSIONS = Set.of("zip", "jar", "war", "ear", "apk", "aar", "whl", "nupkg");
+    /**
+     * the most bytes (uncompressed) the nested archives of a chain hold on
+     * memory at once. each archive inside a archive is read on memory while
+     * its parents are still there. so a nested archive that does not fit on
+     * what its parents left is not looked into. (each walking thread holds
+     * at most this)
+     */
+    private static final long NESTED_LIMIT = 64L << 20;
+    /**
+     * the deepest archive inside archives looked into. (a archive that
+     * contains itself over and over is not followed forever)
+     */
+    private static final int MAX_NESTING = 8;
+
+    private final RuleExecutor Executor;
+    private final boolean Nested;
+
+    /**
+     * @param executor the executor that matches the entries.
+     * @param nested whenever to look inside the archives found inside other
+     * archives.
+     */
+    ArchiveSearch(RuleExecutor executor, boolean nested) {
+        Executor = executor;
+        Nested = nested;
+    }
+
+    /**
+     * checks if a entry of the tree is a archive to look into.
+     */
+    static boolean isArchive(Path path, BasicFileAttributes attributes) {
+        return attributes != null && attributes.isRegularFile() && isArchiveName(path.getFileName().toString());
+    }
+
+    private static boolean isArchiveName(String name) {
+        var dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * matches the entries of a archive.
+     *
+     * @param archive the archive file
+     * @param depth the depth of the archive. its entries are deeper.
+     * @param sink receives the entries that match
+     * @param stop tells when the search must stop.
+     * @throws ZipException if it is not a zip archive or it is damaged.
+     * @throws IOException if the archive cannot be read
+     */
+    void search(Path archive, int depth, BiConsumer<Path, BasicFileAttributes> sink, BooleanSupplier stop)
+            throws IOException {
+        try (var channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            search(new ZipDirectory(channel), archive, depth, 0, 0, sink, stop);
+        }
+    }
+
+    /**
+     * @param nesting how many archives contain this one.
+     * @param held the bytes on memory of this archive and the ones that
+     * contain it.
+     */
+    private void search(ZipDirectory directory, Path archive, int depth, int nesting, long held,
+            BiConsumer<Path, BasicFileAttributes> sink, BooleanSupplier stop) throws IOException {
+        var base = archive.resolveSibling(archive.getFileName() + "!");
+        //whenever each folder of the archive is descended into.
+        var descend = new HashMap<Path, Boolean>();
+        directory.forEach(entry -> {
+            if (stop.getAsBoolean()) {
+                return false;
+            }
+            Path path;
+            try {
+                //the names are relative to the archive. even if they start with /
+                path = base.resolve(stripLeadingSlash(entry.name()));
+            } catch (InvalidPathException ex) {
+                return true;
+            }
+            if (isPruned(path, base, depth, entry, descend)) {
+                return true;
+            }
+            var entryDepth = depth + path.getNameCount() - base.getNameCount();
+            var attributes = new EntryAttributes(entry);
+            boolean matches;
+            try {
+                matches = Executor.MatchRule(path, attributes, entryDepth);
+            } catch (IOException ex) {
+                //a rule that needs the real file. a entry is not one.
+                matches = false;
+            }
+            if (matches) {
+                sink.accept(path, attributes);
+            }
+            if (Nested && !entry.isDirectory() && isArchiveName(path.getFileName().toString())) {
+                if (nesting + 1 >= MAX_NESTING) {
+                    LOGGER.log(Level.FINE, "{0} is nested too deep. it is not looked into", path);
+                    return true;
+                }
+                if (entry.size() > NESTED_LIMIT - held) {
+                    LOGGER.log(Level.FINE, "{0} does not fit on memory with its parents. it is not looked into", path);
+                    return true;
+                }
+                try {
+                    search(new ZipDirectory(directory.read(entry)), path, entryDepth, nesting + 1,
+                            held + entry.size(), sink, stop);
+                } catch (ZipException ex) {
+                    LOGGER.log(Level.FINE, "cannot look inside {0}: {1}", new Object[]{path, ex.getMessage()});
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * checks if any folder of the archive above the entry was pruned by the
+     * rules. the folders without a entry of their own (only implied by the
+     * names) are checked with the time of the entry.
+     *
+     * @param descend the decision of each folder checked so far.
+     */
+    private boolean isPruned(Path path, Path base, int depth, ZipDirectory.Entry entry, Map<Path, Boolean> descend) {
+        for (var folder = path.getParent(); folder != null && !folder.equals(base); folder = folder.getParent()) {
+            var allowed = descend.get(folder);
+            if (allowed == null) {
+                var attributes = new EntryAttributes(new ZipDirectory.Entry(folder.getFileName() + "/", 0, 0, 0,
+                        entry.modifiedMillis(), -1));
+                allowed = Executor.ShouldDescend(folder, attributes, depth + folder.getNameCount() - base.getNameCount());
+                descend.put(folder, allowed);
+            }
+            if (!allowed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripLeadingSlash(String name) {
+        var start = 0;
+        while (start < name.length() && name.charAt(start) == '/') {
+            start++;
+        }
+        return name.substring(start);
+    }
+
+    /**
+     * the attributes of a archive entry. as they are on the central
+     * directory.
+     */
+    private static final class EntryAttributes implements BasicFileAttributes {
+
+        private final ZipDirectory.Entry Entry;
+
+        private EntryAttributes(ZipDirectory.Entry entry) {
+            Entry = entry;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return FileTime.fromMillis(Entry.modifiedMillis());
+        }
+
+        /**
+         * not stored on the archive. same as {@link #lastModifiedTime()}
+         */
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModifiedTime();
+        }
+
+        /**
+         * not stored on the archive. same as {@link #lastModifiedTime()}
+         */
+        @Override
+        public FileTime creationTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return !Entry.isDirectory();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return Entry.isDirectory();
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        /**
+         * the uncompressed size.
+         */
+        @Override
+        public long size() {
+            return Entry.size();
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.find.Rules.AndRule;
+import com.aeongames.find.Rules.NotRule;
+import com.aeongames.find.Rules.OrRule;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * the rules of a query compiled into a single predicate. instead of looping
+ * over the rules (a call site that sees every rule class) the rules are
+ * chained with {@link MethodHandles#guardWithTest} each link bound to its
+ * rule and resolved on its concrete class. the combinator rules are compiled
+ * into the same chain. once the predicate is hot the JDK customizes it for
+ * this instance. so each rule call is a direct (inlinable) call.
+ * <p>
+ * the IOExceptions are handled once for the whole chain instead of once per
+ * rule. it does not collect statistics nor adapts the order. so the executor
+ * only uses it when those are not required.
+ *
+ * @author Eduardo
+ */
+final class CompiledRules {
+
+    private static final MethodType MATCH = MethodType.methodType(boolean.class, Path.class, BasicFileAttributes.class, int.class);
+    private static final MethodHandle TRUE = MethodHandles.dropArguments(
+            MethodHandles.constant(boolean.class, true), 0, MATCH.parameterList());
+    private static final MethodHandle FALSE = MethodHandles.dropArguments(
+            MethodHandles.constant(boolean.class, false), 0, MATCH.parameterList());
+    private static final MethodHandle NOT;
+    private static final MethodHandle IGNORE_IO;
+    private static final MethodHandle RETHROW_IO;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            NOT = lookup.findStatic(CompiledRules.class, "not", MethodType.methodType(boolean.class, boolean.class));
+            var handler = MethodType.methodType(boolean.class, IOException.class);
+            IGNORE_IO = MethodHandles.dropArguments(lookup.findStatic(CompiledRules.class, "ignore", handler),
+                    1, MATCH.parameterList());
+            RETHROW_IO = MethodHandles.dropArguments(lookup.findStatic(CompiledRules.class, "rethrow", handler),
+                    1, MATCH.parameterList());
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final MethodHandle Predicate;
+
+    /**
+     * compiles the rules. all of them must match.
+     *
+     * @param rules the rules on the order to evaluate them.
+     * @param ignoreIOExceptions whenever a rule that fails to read is a
+     * rejection. (otherwise the exception is thrown)
+     */
+    CompiledRules(List<Rule> rules, boolean ignoreIOExceptions) {
+        var chain = all(rules);
+        Predicate = MethodHandles.catchException(chain, IOException.class,
+                ignoreIOExceptions ? IGNORE_IO : RETHROW_IO);
+    }
+
+    /**
+     * evaluates the compiled rules.
+     *
+     * @throws IOException if a rule fails to read and the IOExceptions are not
+     * ignored.
+     */
+    boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        try {
+            return (boolean) Predicate.invokeExact(pathToFile, attributes, depth);
+        } catch (IOException | RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            //Rule.MatchRule only declares IOException.
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    /**
+     * a chain where each rule must match. built from the last rule so the
+     * first one is tested first.
+     */
+    private static MethodHandle all(List<Rule> rules) {
+        var chain = TRUE;
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            chain = MethodHandles.guardWithTest(compile(rules.get(i)), chain, FALSE);
+        }
+        return chain;
+    }
+
+    /**
+     * a chain where any rule must match.
+     */
+    private static MethodHandle any(List<Rule> rules) {
+        var chain = FALSE;
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            chain = MethodHandles.guardWithTest(compile(rules.get(i)), TRUE, chain);
+        }
+        return chain;
+    }
+
+    private static MethodHandle compile(Rule rule) {
+        if (rule instanceof AndRule and) {
+            return all(and.getRules());
+        } else if (rule instanceof OrRule or) {
+            return any(or.getRules());
+        } else if (rule instanceof NotRule not) {
+            return MethodHandles.filterReturnValue(compile(not.getRule()), NOT);
+        }
+        return bind(rule);
+    }
+
+    /**
+     * the MatchRule of the rule. resolved on its own class when it is
+     * accessible so the call does not need to dispatch.
+     */
+    private static MethodHandle bind(Rule rule) {
+        var lookup = MethodHandles.lookup();
+        try {
+            try {
+                return lookup.findVirtual(rule.getClass(), "MatchRule", MATCH).bindTo(rule);
+            } catch (IllegalAccessException ex) {
+                //a rule class this module cannot see. dispatch through the base class.
+                return lookup.findVirtual(Rule.class, "MatchRule", MATCH).bindTo(rule);
+            }
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("unable to compile " + rule.getRuleName(), ex);
+        }
+    }
+
+    private static boolean not(boolean value) {
+        return !value;
+    }
+
+    private static boolean ignore(IOException ex) {
+        return false;
+    }
+
+    private static boolean rethrow(IOException ex) throws IOException {
+        throw ex;
+    }
+}
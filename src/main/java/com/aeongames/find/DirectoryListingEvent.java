@@ -0,0 +1,57 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * a flight recorder event for each folder walked. its duration is the time
+ * the folder was being processed. (on a sequential search that includes the
+ * subfolders) the time spent on listing and reading the attributes is
+ * recorded on its own fields.
+ *
+ * @author Eduardo
+ */
+@Name("com.aeongames.find.DirectoryListing")
+@Label("Directory Listing")
+@Category({"Find"})
+@StackTrace(false)
+@Description("a folder listed by a search")
+final class DirectoryListingEvent extends jdk.jfr.Event {
+
+    @Label("Directory")
+    String directory;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Entries")
+    long entries;
+
+    @Label("Subdirectories")
+    @Description("the subfolders that were walked")
+    long subdirectories;
+
+    @Label("Listing Time")
+    @Timespan
+    long listingTime;
+
+    @Label("Attributes Time")
+    @Timespan
+    long attributesTime;
+}
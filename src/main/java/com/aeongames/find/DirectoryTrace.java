@@ -0,0 +1,145 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.find.Rules.Rule;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * collects the times of a single folder for the flight recorder events. it is
+ * only created while a recording has the events enabled. so when not recording
+ * the walk does not even read the clock.
+ * <p>
+ * a trace belongs to the worker that lists the folder. it is not thread safe.
+ *
+ * @author Eduardo
+ */
+final class DirectoryTrace {
+
+    private final Path Directory;
+    private final DirectoryListingEvent Listing;
+    private final long[] Evaluated;
+    private final long[] Rejected;
+    private final long[] EvaluationTime;
+    private long Results = 0;
+    private long OutputTime = 0;
+    /**
+     * the System.nanoTime when the measured step started.
+     */
+    private long Mark;
+
+    private DirectoryTrace(Path directory, int depth, int ruleCount, DirectoryListingEvent listing) {
+        Directory = directory;
+        Listing = listing;
+        Listing.depth = depth;
+        Evaluated = new long[ruleCount];
+        Rejected = new long[ruleCount];
+        EvaluationTime = new long[ruleCount];
+    }
+
+    /**
+     * starts the trace of a folder.
+     *
+     * @return the trace. or null if no recording has the events enabled.
+     */
+    static DirectoryTrace begin(Path directory, int depth, int ruleCount) {
+        var listing = new DirectoryListingEvent();
+        if (!listing.isEnabled()) {
+            return null;
+        }
+        listing.begin();
+        var trace = new DirectoryTrace(directory, depth, ruleCount, listing);
+        trace.mark();
+        return trace;
+    }
+
+    /**
+     * marks the start of a step.
+     */
+    void mark() {
+        Mark = System.nanoTime();
+    }
+
+    /**
+     * the step since the mark was listing the folder.
+     */
+    void listed() {
+        Listing.listingTime += System.nanoTime() - Mark;
+    }
+
+    /**
+     * the step since the mark was reading the attributes of a entry.
+     */
+    void attributesRead() {
+        Listing.entries++;
+        Listing.attributesTime += System.nanoTime() - Mark;
+    }
+
+    void ruleEvaluated(int index, boolean rejected, long nanos) {
+        Evaluated[index]++;
+        if (rejected) {
+            Rejected[index]++;
+        }
+        EvaluationTime[index] += nanos;
+    }
+
+    /**
+     * the step since the mark was handing a result to the sink.
+     */
+    void resultOutput() {
+        Results++;
+        OutputTime += System.nanoTime() - Mark;
+    }
+
+    void subdirectory() {
+        Listing.subdirectories++;
+    }
+
+    /**
+     * ends the trace and commits the events.
+     *
+     * @param rules the rules (on the order they were provided)
+     */
+    void commit(List<Rule> rules) {
+        Listing.end();
+        if (Listing.shouldCommit()) {
+            Listing.directory = Directory.toString();
+            Listing.commit();
+        }
+        var name = Directory.toString();
+        for (int i = 0; i < Evaluated.length; i++) {
+            if (Evaluated[i] == 0) {
+                continue;
+            }
+            var evaluation = new RuleEvaluationEvent();
+            if (evaluation.isEnabled()) {
+                evaluation.directory = name;
+                evaluation.rule = rules.get(i).getRuleName();
+                evaluation.evaluated = Evaluated[i];
+                evaluation.rejected = Rejected[i];
+                evaluation.evaluationTime = EvaluationTime[i];
+                evaluation.commit();
+            }
+        }
+        if (Results > 0) {
+            var output = new ResultOutputEvent();
+            if (output.isEnabled()) {
+                output.directory = name;
+                output.results = Results;
+                output.outputTime = OutputTime;
+                output.commit();
+            }
+        }
+    }
+}
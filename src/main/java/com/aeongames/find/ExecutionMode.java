@@ -0,0 +1,90 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import java.util.Objects;
+
+/**
+ * defines how the {@link RuleExecutor} walks the folder tree.
+ *
+ * @author Eduardo
+ */
+public enum ExecutionMode {
+    /**
+     * a single thread walks the whole tree (the original behavior)
+     */
+    SEQUENTIAL("sequential", 1),
+    /**
+     * each folder becomes a Fork Join task that idle workers can steal.
+     */
+    PARALLEL("parallel", Runtime.getRuntime().availableProcessors()),
+    /**
+     * each folder is listed on its own virtual thread. intended for high
+     * latency file systems (network mounts) where most of the time is spent
+     * waiting on I/O. the parallelism is the limit of folders listed at once
+     * so we do not run out of file descriptors.
+     */
+    VIRTUAL("virtual", 256);
+
+    public static final String COMMAND = "-mode";
+
+    /**
+     * gets the execution mode depending on the Command Line parameters
+     *
+     * @param CMDLine an array of command line parameters
+     * @return null if the parameters are invalid or not present. otherwise
+     * return the requested mode.
+     */
+    public static final ExecutionMode Parse(String[] CMDLine) {
+        for (int i = 0; i < CMDLine.length; i++) {
+            if (Objects.equals(CMDLine[i].strip(), COMMAND)
+                    && i + 1 < CMDLine.length) {
+                var value = CMDLine[i + 1].strip();
+                for (var mode : values()) {
+                    if (mode.Name.equalsIgnoreCase(value)) {
+                        return mode;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private final String Name;
+    private final int DefaultParallelism;
+
+    private ExecutionMode(String name, int defaultParallelism) {
+        Name = name;
+        DefaultParallelism = defaultParallelism;
+    }
+
+    /**
+     * the parallelism to use on this mode when none is provided.
+     *
+     * @return the default amount of threads (or concurrent listings for
+     * {@link #VIRTUAL})
+     */
+    public int getDefaultParallelism() {
+        return DefaultParallelism;
+    }
+
+    /**
+     * the name of this mode as used on the command line
+     *
+     * @return the name of this mode
+     */
+    public String getName() {
+        return Name;
+    }
+}
@@ -12,18 +12,37 @@
  */
 package com.aeongames.find;
 
+import com.aeongames.find.Rules.AndRule;
+import com.aeongames.find.Rules.ExcludeDirectory;
+import com.aeongames.find.Rules.FindContent;
+import com.aeongames.find.Rules.FindDepth;
 import com.aeongames.find.Rules.FindDirectory;
 import com.aeongames.find.Rules.FindExtension;
+import com.aeongames.find.Rules.FindModified;
 import com.aeongames.find.Rules.FindName;
 import com.aeongames.find.Rules.Rule;
+import com.aeongames.find.Rules.RuleCost;
+import com.aeongames.find.Rules.RuleExpression;
 import com.aeongames.find.Rules.FindSize;
-import com.aeongames.utils.sizes;
+import com.aeongames.find.analysis.DirectorySizes;
+import com.aeongames.find.analysis.DuplicateFinder;
+import com.aeongames.find.analysis.TopFiles;
+import com.aeongames.find.index.Checkpoint;
+import com.aeongames.find.index.LiveSearch;
+import com.aeongames.find.index.TreeIndex;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,18 +54,254 @@ public class Find {
     /*
     example params: 
     "C:\Users\cartman\OneDrive\book" -type f -size 1mb -ext jpg
+    optionally walk the tree with several threads:
+    "C:\Users\cartman\OneDrive\book" -type f -ext jpg -mode parallel -threads 8
+    or for network mounts with virtual threads (up to 512 folders listed at once):
+    "\\server\share\book" -type f -ext jpg -mode virtual -threads 512
+    several extensions can be searched at once (-iext ignores the case):
+    "C:\Users\cartman\OneDrive\book" -type f -iext jpg,png,gif -ext webp
+    whole folders can be skipped without listing them:
+    "C:\Users\cartman\code" -ext js -exclude node_modules,.git -maxdepth 4
+    repeated searches over a big tree can run against a snapshot (built on the
+    first run). -refresh updates it listing only the folders that changed and
+    -rebuild builds it again from scratch:
+    "D:\archive" -ext iso -index D:\archive.idx
+    "D:\archive" -ext iso -index D:\archive.idx -refresh
+    -watch keeps printing the changes on the results until stopped:
+    "C:\Users\cartman\Downloads" -ext torrent -watch
+    stop as soon as there are enough results or after some seconds:
+    "C:\Users\cartman" -name desktop.ini -limit 1
+    "\\server\share" -ext iso -timeout 30
+    files can be matched by their content (a text or with RE a regular expression):
+    "C:\Users\cartman\code" -ext java -contains TODO
+    "C:\Users\cartman\logs" -ext log -contains "timeout after [0-9]+ ms" RE
+    -duplicates lists the files with the same content (the other rules select
+    the files to compare) only the files that share a size are read:
+    "D:\photos" -duplicates -size 100kb
+    -du shows the total size and files of each folder up to a depth (1 by
+    default) the biggest first. the other rules select the files counted:
+    "D:\" -du 2 -mode parallel
+    "D:\photos" -du -ext raw
+    -top shows the N biggest files (or with mtime the most recently modified)
+    only the N winners are kept while walking:
+    "D:\" -top 50 -mode parallel
+    "C:\Users\cartman" -top 20 mtime -ext docx
+    the results can be written for other programs with -format (human, print0,
+    ndjson or csv) -print0 is the same as -format print0:
+    "C:\Users\cartman\code" -ext java -format ndjson
+    "/home/cartman" -ext tmp -print0 | xargs -0 rm
+    the rules can be combined with -or, -not (or !) and grouped with parenthesis
+    (rules next to each other must all match) so a single walk answers it:
+    "C:\Users\cartman\Pictures" ( -ext jpg -or -ext png ) -not -name thumbs.db
+    -newer matches the files modified after a time (or after a file was modified):
+    "C:\Users\cartman\Documents" -newer 2025-06-01 -ext docx
+    -checkpoint reports only the files added or modified since the previous run
+    with the same checkpoint (all of them on the first run) only the folders
+    whose modified time changed are listed again. -trustmtime also skips
+    reading the files of those that did not (files are never written in place)
+    "D:\archive" -ext iso -checkpoint D:\archive.ckpt
+    several folders can be searched at once (only the plain search) the folders
+    on different devices are walked at the same time. -threads applies to each
+    device and -devicethreads sets it for some devices (by their name)
+    "/mnt/disk1" "/mnt/disk2" "/mnt/nfs" -ext iso -mode virtual -devicethreads server:/export=4
+    -follow follows the links (each folder is walked once. so cycles end):
+    "/srv/farm" -follow -ext so
+    -archives also looks inside the zip archives (jar, war, ear...) without
+    extracting them. the entries are shown as archive!/entry with their
+    uncompressed size. with nested it also looks inside the archives inside
+    archives (up to 8 levels. and 64mb read on memory at once):
+    "/opt/app/lib" -archives -ext class -name Main.class
+    "/opt/deploy" -archives nested -size 1mb
+    -compile evaluates the rules as a single compiled predicate instead of a loop.
+    -debug shows on the standard error the order the rules ended up evaluated.
+    -stats shows on the standard error where the time went (folders listed,
+    entries visited, attribute reads and the time of each rule) it is also
+    available while searching as a MXBean (com.aeongames.find:type=SearchStatistics)
+    named as the folder (or as each device when several folders are searched)
+    it is not available with -watch or -checkpoint.
+    "D:\archive" -name .*\.iso RE -stats
+    a flight recording shows the same per folder (the events are on the Find category):
+    java -XX:StartFlightRecording=filename=find.jfr -jar Find.jar "D:\archive" -ext iso
     output: 
     --- exec:3.1.0:exec (default-cli) @ Find ---
     File Size 1.25 MB C:\Users\cartman\OneDrive\book\0.00.jpg
     File Size 1.58 MB C:\Users\cartman\OneDrive\book\0.01.jpg
     File Size 1.00 MB C:\Users\cartman\OneDrive\book\0.02.jpg
     */
+    public static final String THREADS_COMMAND = "-threads";
+    public static final String DEBUG_COMMAND = "-debug";
+    public static final String INDEX_COMMAND = "-index";
+    public static final String REFRESH_COMMAND = "-refresh";
+    public static final String REBUILD_COMMAND = "-rebuild";
+    public static final String WATCH_COMMAND = "-watch";
+    public static final String LIMIT_COMMAND = "-limit";
+    public static final String TIMEOUT_COMMAND = "-timeout";
+    public static final String STATS_COMMAND = "-stats";
+    public static final String COMPILE_COMMAND = "-compile";
+    public static final String FOLLOW_COMMAND = "-follow";
+    public static final String ARCHIVES_COMMAND = "-archives";
+    public static final String NESTED_ARCHIVES_OPTION = "nested";
+    public static final String DEVICE_THREADS_COMMAND = "-devicethreads";
+
     public static void main(String[] args) throws IOException {
         LinkedList<Rule> rules = new LinkedList<>();
         //parse the paramenters and create the rules out of the Command line paramenters. 
         var basefolder = parseParams(args, rules);
-        List<Path> results = find(Path.of(basefolder), rules);
-        parseResults(results);
+        var mode = ExecutionMode.Parse(args);
+        if (mode == null) {
+            mode = ExecutionMode.SEQUENTIAL;
+        }
+        var threads = parseIntParam(args, THREADS_COMMAND, mode.getDefaultParallelism());
+        if (hasFlag(args, DEBUG_COMMAND)) {
+            enableDebugLog();
+        }
+        //write each result as soon as it is found instead of waiting for the whole tree.
+        //it is buffered. so it must be flushed once the search ends.
+        var output = new ResultWriter(System.out, System.out.charset(), OutputFormat.Parse(args), outputKind(args));
+        var roots = parseRoots(args);
+        if (roots.size() > 1) {
+            searchRoots(args, roots, rules, mode, threads, output);
+            return;
+        }
+        //the live search and the checkpoint do not measure their searches.
+        for (var unmeasured : List.of(WATCH_COMMAND, Checkpoint.COMMAND)) {
+            if (hasFlag(args, STATS_COMMAND) && hasFlag(args, unmeasured)) {
+                System.err.println(STATS_COMMAND + " is not supported with " + unmeasured);
+                return;
+            }
+        }
+        if (hasFlag(args, WATCH_COMMAND)) {
+            watch(Path.of(basefolder), rules, output);
+            return;
+        }
+        var checkpointFile = parseStringParam(args, Checkpoint.COMMAND);
+        if (checkpointFile != null) {
+            var checkpoint = new Checkpoint(Path.of(checkpointFile));
+            checkpoint.setTrustModifiedTime(hasFlag(args, Checkpoint.TRUST_COMMAND));
+            checkpoint.run(Path.of(basefolder), rules, output);
+            output.flush();
+            return;
+        }
+        var indexFile = parseStringParam(args, INDEX_COMMAND);
+        var stats = hasFlag(args, STATS_COMMAND);
+        if (indexFile == null) {
+            var executor = new RuleExecutor(rules);
+            executor.setCollectStatistics(stats);
+            if (stats) {
+                executor.getStatistics().register(basefolder);
+            }
+            executor.setExecutionMode(mode);
+            executor.setParallelism(threads);
+            executor.setIgnoreIOExceptions(readsContent(rules));
+            executor.setCompileRules(hasFlag(args, COMPILE_COMMAND));
+            executor.setFollowLinks(hasFlag(args, FOLLOW_COMMAND));
+            executor.setSearchArchives(hasFlag(args, ARCHIVES_COMMAND));
+            executor.setSearchNestedArchives(NESTED_ARCHIVES_OPTION.equalsIgnoreCase(
+                    parseStringParam(args, ARCHIVES_COMMAND)));
+            var timeout = setLimits(args, executor);
+            var top = parseIntParam(args, TopFiles.COMMAND, 0);
+            if (top > 0) {
+                printTop(new TopFiles(executor, top, TopFiles.Order.Parse(args)), Path.of(basefolder), output);
+            } else if (hasFlag(args, DirectorySizes.COMMAND)) {
+                //the totals are per folder. not results. a limit would cut them short.
+                for (var unsupported : List.of(LIMIT_COMMAND, ARCHIVES_COMMAND)) {
+                    if (hasFlag(args, unsupported)) {
+                        System.err.println(unsupported + " is not supported with " + DirectorySizes.COMMAND);
+                        return;
+                    }
+                }
+                //a folder that cannot be listed is skipped (and counted) like du does.
+                executor.setIgnoreIOExceptions(true);
+                var aggregation = new DirectorySizes(executor);
+                printTotals(aggregation, Path.of(basefolder), parseDepthParam(args, DirectorySizes.COMMAND, 1), output);
+            } else if (hasFlag(args, DuplicateFinder.COMMAND)) {
+                printDuplicates(new DuplicateFinder(executor), Path.of(basefolder), output);
+            } else {
+                findWithAttributes(Path.of(basefolder), executor, output);
+                output.flush();
+            }
+            if (executor.getOutcome() == SearchOutcome.TIMED_OUT) {
+                System.err.println("the search timed out after " + timeout + " seconds");
+            }
+            if (stats) {
+                System.err.println(executor.getStatistics());
+            }
+            return;
+        }
+        var indexPath = Path.of(indexFile);
+        if (hasFlag(args, REBUILD_COMMAND) || !Files.exists(indexPath)) {
+            TreeIndex.build(Path.of(basefolder), indexPath);
+        } else if (hasFlag(args, REFRESH_COMMAND)) {
+            TreeIndex.refresh(indexPath);
+        }
+        try (var index = TreeIndex.open(indexPath)) {
+            var executor = new RuleExecutor(rules);
+            executor.setCollectStatistics(stats);
+            if (stats) {
+                executor.getStatistics().register(basefolder);
+            }
+            executor.setIgnoreIOExceptions(readsContent(rules));
+            var timeout = setLimits(args, executor);
+            findWithAttributes(index, Path.of(basefolder), executor, output);
+            output.flush();
+            if (executor.getOutcome() == SearchOutcome.TIMED_OUT) {
+                System.err.println("the search timed out after " + timeout + " seconds");
+            }
+            if (stats) {
+                //the snapshot is not listed. only the rules are measured.
+                System.err.println(executor.getStatistics());
+            }
+        }
+    }
+
+    /**
+     * the records the command line writes. the totals and the duplicates have
+     * their own shape.
+     */
+    private static ResultWriter.Kind outputKind(String[] args) {
+        //the same precedence as main. only the plain search of a single folder does the analysis.
+        for (var search : List.of(WATCH_COMMAND, Checkpoint.COMMAND, INDEX_COMMAND)) {
+            if (hasFlag(args, search)) {
+                return ResultWriter.Kind.RESULTS;
+            }
+        }
+        if (parseIntParam(args, TopFiles.COMMAND, 0) > 0) {
+            return ResultWriter.Kind.RESULTS;
+        }
+        if (hasFlag(args, DirectorySizes.COMMAND)) {
+            return ResultWriter.Kind.TOTALS;
+        }
+        if (hasFlag(args, DuplicateFinder.COMMAND)) {
+            return ResultWriter.Kind.DUPLICATES;
+        }
+        return ResultWriter.Kind.RESULTS;
+    }
+
+    /**
+     * whenever any rule reads the files. (like -contains) a file that cannot
+     * be read (like one owned by another user) must not stop the whole
+     * search. so their errors are ignored. (and counted on -stats)
+     */
+    private static boolean readsContent(List<Rule> rules) {
+        //a composite costs as its most expensive rule.
+        return rules.stream().anyMatch(rule -> rule.getCost() == RuleCost.CONTENT);
+    }
+
+    /**
+     * sets the -limit and -timeout of the command line on the executor.
+     *
+     * @return the timeout in seconds. 0 if there is none.
+     */
+    private static int setLimits(String[] args, RuleExecutor executor) {
+        var limit = parseIntParam(args, LIMIT_COMMAND, 0);
+        if (limit > 0) {
+            executor.setLimit(limit);
+        }
+        var timeout = parseIntParam(args, TIMEOUT_COMMAND, 0);
+        if (timeout > 0) {
+            executor.setTimeout(Duration.ofSeconds(timeout));
+        }
+        return timeout;
     }
 
     /**
@@ -60,63 +315,551 @@ public class Find {
      * @return a list of Path that matches the criteria of the given rules. 
      */
     public static List<Path> find(Path basePath, List<Rule> rules) {
-        if (Objects.isNull(basePath) || !Files.exists(basePath) || !Files.isReadable(basePath)) {
+        return find(basePath, rules, ExecutionMode.SEQUENTIAL, ExecutionMode.SEQUENTIAL.getDefaultParallelism());
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on a given Path. with the provided rules. walking the 
+     * tree with the requested execution mode. the result set is the same as 
+     * the sequential search (but when not sequential it is on the order the
+     * path's were found).
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param mode how to walk the tree (sequential, parallel or virtual threads)
+     * @param parallelism the amount of threads to use when the mode is 
+     * parallel or the amount of folders listed at once when it is virtual. 
+     * must be 1 or more
+     * @return a list of Path that matches the criteria of the given rules. 
+     */
+    public static List<Path> find(Path basePath, List<Rule> rules, ExecutionMode mode, int parallelism) {
+        var executor = new RuleExecutor(rules);
+        executor.setExecutionMode(mode);
+        executor.setParallelism(parallelism);
+        return find(basePath, executor);
+    }
+
+    /**
+     * API entry point
+     * Finds up to limit Files on a given Path. with the provided rules. the
+     * search stops as soon as the limit is reached. (a limit of 1 checks if
+     * anything matches)
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param limit the maximal amount of results. must be 1 or more
+     * @return a list of at most limit Path that matches the criteria of the 
+     * given rules. 
+     */
+    public static List<Path> find(Path basePath, List<Rule> rules, long limit) {
+        var executor = new RuleExecutor(rules);
+        executor.setLimit(limit);
+        return find(basePath, executor);
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on a given Path. with the rules and settings of the 
+     * provided executor (mode, limit, timeout...) the search can be cancelled
+     * from another thread with {@link RuleExecutor#cancel()} and how it ended
+     * is available on {@link RuleExecutor#getOutcome()}
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param executor the executor with the rules to apply.
+     * @return a list of Path that matches the criteria of the given rules. 
+     */
+    public static List<Path> find(Path basePath, RuleExecutor executor) {
+        LinkedList<Path> results = new LinkedList<>();
+        if (!findWithAttributes(basePath, executor, (path, attributes) -> results.add(path))) {
             return List.of();
         }
+        return results;
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on a given Path. with the provided rules. each path that
+     * matches is handed to the sink as soon as it is found. so results can be
+     * processed while the tree is still being walked and nothing is
+     * accumulated in memory. the sink is never called concurrently.
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param mode how to walk the tree (sequential, parallel or virtual threads)
+     * @param parallelism the amount of threads to use when the mode is 
+     * parallel or the amount of folders listed at once when it is virtual. 
+     * must be 1 or more
+     * @param sink the consumer that receives each path that matches the rules
+     * @return true if the whole tree was walked. false if the base path is not
+     * valid or the search was stopped by a I/O error (the error is logged)
+     */
+    public static boolean find(Path basePath, List<Rule> rules, ExecutionMode mode, int parallelism,
+            Consumer<? super Path> sink) {
+        Objects.requireNonNull(sink, "the sink cannot be null");
+        return findWithAttributes(basePath, rules, mode, parallelism, (path, attributes) -> sink.accept(path));
+    }
+
+    /**
+     * API entry point
+     * same as {@link #find(Path, List, ExecutionMode, int, Consumer)} but the
+     * sink also receives the attributes read while matching each path. so
+     * they do not need to be read again. (they can be null if they could not
+     * be read)
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param mode how to walk the tree (sequential, parallel or virtual threads)
+     * @param parallelism the amount of threads to use when the mode is 
+     * parallel or the amount of folders listed at once when it is virtual. 
+     * must be 1 or more
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @return true if the whole tree was walked. false if the base path is not
+     * valid or the search was stopped by a I/O error (the error is logged)
+     */
+    public static boolean findWithAttributes(Path basePath, List<Rule> rules, ExecutionMode mode,
+            int parallelism, BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
         //use an anonimous Instance of Rule Executor to process the files and Check the file rules
         RuleExecutor executor = new RuleExecutor(rules);
-        List<Path> results = null;
+        executor.setExecutionMode(mode);
+        executor.setParallelism(parallelism);
+        return findWithAttributes(basePath, executor, sink);
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on a given Path. with the rules and settings of the 
+     * provided executor (mode, limit, timeout...) each path that matches is 
+     * handed to the sink with its attributes as soon as it is found.
+     *
+     * @param basePath the base path (a folder) to start the look from.
+     * @param executor the executor with the rules to apply.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @return true if the search ended (completed, reached the limit, timed 
+     * out or was cancelled, see {@link RuleExecutor#getOutcome()}) false if 
+     * the base path is not valid or the search was stopped by a I/O error 
+     * (the error is logged)
+     */
+    public static boolean findWithAttributes(Path basePath, RuleExecutor executor,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        if (Objects.isNull(basePath) || !Files.exists(basePath) || !Files.isReadable(basePath)) {
+            return false;
+        }
         try {
-            results = executor.ExecuteRule(basePath, true);
+            executor.ExecuteRuleWithAttributes(basePath, true, sink);
         } catch (IOException ex) {
-            if (results == null) {
-                results = List.of();
-            }
             Logger.getLogger(Find.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * API entry point
+     * Finds the Files under a given Path with the provided rules. but using a
+     * snapshot of the tree instead of the file system. 
+     * see {@link TreeIndex#build(Path, Path)}
+     *
+     * @param index the snapshot to search on.
+     * @param basePath the base path (a folder) to start the look from. it must
+     * be the root of the snapshot or a folder under it.
+     * @param rules the rules to apply on our search for files or directories.
+     * @return a list of Path that matches the criteria of the given rules. 
+     */
+    public static List<Path> find(TreeIndex index, Path basePath, List<Rule> rules) {
+        LinkedList<Path> results = new LinkedList<>();
+        if (!findWithAttributes(index, basePath, rules, (path, attributes) -> results.add(path))) {
+            return List.of();
         }
         return results;
     }
-        
-    private static void parseResults(List<Path> results) throws IOException {
-        for (Path result : results) {
-            System.out.print("File Size ");
-            sizes touse;
-            var MinimalSizeBytes = Files.size(result);
-            if (MinimalSizeBytes >= sizes.GigaByte.size()) {
-                touse = sizes.GigaByte;
-            } else if (MinimalSizeBytes >= sizes.MegaByte.size()) {
-                touse = sizes.MegaByte;
-            } else if (MinimalSizeBytes >= sizes.KiloByte.size()) {
-                touse = sizes.KiloByte;
-            } else {
-                touse = sizes.bytee;
+
+    /**
+     * API entry point
+     * Finds the Files under a given Path with the provided rules. but using a
+     * snapshot of the tree instead of the file system. each path that matches
+     * is handed to the sink with the attributes stored on the snapshot.
+     *
+     * @param index the snapshot to search on.
+     * @param basePath the base path (a folder) to start the look from. it must
+     * be the root of the snapshot or a folder under it.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @return true if the search completed. false if the base path is not on
+     * the snapshot or a rule failed (the error is logged)
+     */
+    public static boolean findWithAttributes(TreeIndex index, Path basePath, List<Rule> rules,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        return findWithAttributes(index, basePath, new RuleExecutor(rules), sink);
+    }
+
+    /**
+     * API entry point
+     * same as {@link #findWithAttributes(TreeIndex, Path, List, BiConsumer)}
+     * but with the rules and settings of the provided executor.
+     *
+     * @param index the snapshot to search on.
+     * @param basePath the base path (a folder) to start the look from. it must
+     * be the root of the snapshot or a folder under it.
+     * @param executor the executor with the rules to apply.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @return true if the search completed. false if the base path is not on
+     * the snapshot or a rule failed (the error is logged)
+     */
+    public static boolean findWithAttributes(TreeIndex index, Path basePath, RuleExecutor executor,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        if (Objects.isNull(index) || Objects.isNull(basePath)) {
+            return false;
+        }
+        try {
+            index.query(basePath, executor, sink);
+        } catch (IOException ex) {
+            Logger.getLogger(Find.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on several Paths with the provided rules. the paths on
+     * different devices are walked at the same time. see
+     * {@link MultiRootSearch}
+     *
+     * @param basePaths the base paths (folders) to start the look from.
+     * @param rules the rules to apply on our search for files or directories.
+     * @return a list of Path that matches the criteria of the given rules. on
+     * the order they were found. a path that cannot be searched is logged and
+     * the results of the others are still returned.
+     */
+    public static List<Path> find(List<Path> basePaths, List<Rule> rules) {
+        LinkedList<Path> results = new LinkedList<>();
+        //the failed paths are logged. keep what the others found.
+        findWithAttributes(basePaths, new MultiRootSearch(rules), (path, attributes) -> results.add(path));
+        return results;
+    }
+
+    /**
+     * API entry point
+     * Finds the Files on several Paths with the rules and settings of the
+     * provided search. each path that matches (on any device) is handed to the
+     * sink with its attributes as soon as it is found. the sink is never
+     * called concurrently.
+     *
+     * @param basePaths the base paths (folders) to start the look from.
+     * @param search the search with the rules and settings to apply.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @return true if the search ended on every path. false if any path is not
+     * valid or its search was stopped by a I/O error (the error is logged. the
+     * other paths are still searched)
+     */
+    public static boolean findWithAttributes(List<Path> basePaths, MultiRootSearch search,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        if (Objects.isNull(basePaths) || basePaths.isEmpty()) {
+            return false;
+        }
+        try {
+            search.search(basePaths, sink);
+        } catch (IOException ex) {
+            Logger.getLogger(Find.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * searches several folders. only the plain search supports it.
+     */
+    private static void searchRoots(String[] args, List<Path> roots, List<Rule> rules, ExecutionMode mode,
+            int threads, ResultWriter output) throws IOException {
+        for (var single : List.of(WATCH_COMMAND, INDEX_COMMAND, Checkpoint.COMMAND, TopFiles.COMMAND,
+                DirectorySizes.COMMAND, DuplicateFinder.COMMAND)) {
+            if (hasFlag(args, single)) {
+                System.err.println(single + " only supports a single folder");
+                return;
+            }
+        }
+        var search = new MultiRootSearch(rules);
+        search.setExecutionMode(mode);
+        search.setParallelism(threads);
+        parseDeviceThreads(args, search);
+        var stats = hasFlag(args, STATS_COMMAND);
+        search.setCollectStatistics(stats);
+        search.setRegisterStatistics(stats);
+        search.setIgnoreIOExceptions(readsContent(rules));
+        search.setCompileRules(hasFlag(args, COMPILE_COMMAND));
+        search.setFollowLinks(hasFlag(args, FOLLOW_COMMAND));
+        search.setSearchArchives(hasFlag(args, ARCHIVES_COMMAND));
+        search.setSearchNestedArchives(NESTED_ARCHIVES_OPTION.equalsIgnoreCase(
+                parseStringParam(args, ARCHIVES_COMMAND)));
+        var limit = parseIntParam(args, LIMIT_COMMAND, 0);
+        if (limit > 0) {
+            search.setLimit(limit);
+        }
+        var timeout = parseIntParam(args, TIMEOUT_COMMAND, 0);
+        if (timeout > 0) {
+            search.setTimeout(Duration.ofSeconds(timeout));
+        }
+        findWithAttributes(roots, search, output);
+        output.flush();
+        if (search.getOutcome() == SearchOutcome.TIMED_OUT) {
+            System.err.println("the search timed out after " + timeout + " seconds");
+        }
+        if (stats) {
+            search.getStatistics().forEach((device, statistics) -> System.err.println(device + "\n" + statistics));
+        }
+    }
+
+    /**
+     * prints the results and then each change on them until the process is
+     * stopped.
+     */
+    private static void watch(Path basePath, List<Rule> rules, ResultWriter output) throws IOException {
+        try (var search = new LiveSearch(basePath, rules, new LiveSearch.Listener() {
+            @Override
+            public void added(Path path) {
+                try {
+                    output.write(path, Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                    //each change is shown right away.
+                    output.flush();
+                } catch (IOException ex) {
+                    //it was removed already.
+                }
             }
-            System.out.print(String.format("%.2f", (double) MinimalSizeBytes / touse.size()));
-            System.out.print(" ");
-            System.out.print(touse.getSuffix());
-            System.out.print(" ");
-            System.out.println(result.toString());
+
+            @Override
+            public void removed(Path path) {
+                try {
+                    output.writeRemoved(path);
+                    output.flush();
+                } catch (IOException ex) {
+                    Logger.getLogger(Find.class.getName()).log(Level.WARNING, "cannot write the removal of " + path, ex);
+                }
+            }
+        })) {
+            search.start();
+            search.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * formats a size on the biggest unit that fits it. (like 1.25 MB)
+     */
+    private static String formatSize(long bytes) {
+        return ResultWriter.formatSize(bytes);
+    }
+
+    /**
+     * prints the winners of the top. the first is the biggest (or most
+     * recent)
+     */
+    private static void printTop(TopFiles top, Path basePath, ResultWriter output) throws IOException {
+        for (var file : top.find(basePath)) {
+            output.writeRanked(file.getFile(), file.getSize(), file.getModified());
         }
+        output.flush();
     }
 
     /**
-     * TODO and LIMITATIONS. it only supports 1 of each Filters. as each class
-     * Parse only seeks and process the first instanced of the Flag instead of
-     * seeking for all instances of it. for the sake of this example this is
-     * Acceptable.
+     * prints the totals of each folder up to the depth. the biggest first.
+     */
+    private static void printTotals(DirectorySizes aggregation, Path basePath, int depth, ResultWriter output)
+            throws IOException {
+        for (var total : aggregation.compute(basePath, depth)) {
+            output.writeTotal(total.getDirectory(), total.getDepth(), total.getSize(), total.getFiles(),
+                    total.getDirectories());
+        }
+        output.flush();
+        if (aggregation.getUnreadableDirectories() > 0) {
+            System.err.println(aggregation.getUnreadableDirectories() + " folders could not be listed");
+        }
+    }
+
+    /**
+     * prints each group of duplicated files. the ones that waste the most
+     * space first. and on the standard error how much was read to find them.
+     */
+    private static void printDuplicates(DuplicateFinder finder, Path basePath, ResultWriter output)
+            throws IOException {
+        var groups = finder.find(basePath);
+        long wasted = 0;
+        for (var group : groups) {
+            wasted += group.getWastedBytes();
+            output.writeDuplicates(group.getSize(), group.getWastedBytes(), group.getFiles());
+        }
+        output.flush();
+        System.err.println(groups.size() + " groups of duplicates wasting " + formatSize(wasted)
+                + ". read " + formatSize(finder.getBytesRead()) + " of " + formatSize(finder.getBytesScanned()));
+    }
+
+    /**
+     * TODO and LIMITATIONS. it only supports 1 of each Filters (except -ext
+     * that accepts several extensions) as each class Parse only seeks and 
+     * process the first instanced of the Flag instead of seeking for all 
+     * instances of it. for the sake of this example this is Acceptable.
+     * when the rules are a expression (they use -or, -not or parenthesis)
+     * each flag can be repeated. see {@link RuleExpression}
      */
     private static String parseParams(String[] args, final LinkedList<Rule> rules) {
         String path = null;
-        if (args != null && args.length > 1) {
+        var roots = args == null ? 0 : parseRoots(args).size();
+        if (roots > 1) {
+            //the rules only see the first folder. as they skip it.
+            var ruleArgs = new String[args.length - roots + 1];
+            ruleArgs[0] = args[0];
+            System.arraycopy(args, roots, ruleArgs, 1, args.length - roots);
+            args = ruleArgs;
+        }
+        if (args != null && args.length > 1 && RuleExpression.isExpression(args)) {
             path = args[0];
+            var expression = RuleExpression.Parse(args);
+            if (expression instanceof AndRule all) {
+                //each part on its own. so the executor can reorder them.
+                rules.addAll(all.getRules());
+            } else {
+                includeNonNull(expression, rules);
+            }
+        } else if (args != null && args.length > 1) {
+            path = args[0];
+            //the pruning rules go first. they are cheap and skip whole folders.
+            includeNonNull(FindDepth.Parse(args), rules);
+            includeNonNull(ExcludeDirectory.Parse(args), rules);
             includeNonNull(FindDirectory.Parse(args), rules);
             includeNonNull(FindExtension.Parse(args), rules);
             includeNonNull(FindName.Parse(args), rules);
             includeNonNull(FindSize.Parse(args), rules);
+            includeNonNull(FindModified.Parse(args), rules);
+            //reads the files. it goes last so only the candidates that survive the other rules are read.
+            includeNonNull(FindContent.Parse(args), rules);
         }
         return path;
     }
 
+    /**
+     * the folders to search. the parameters before the first flag (or
+     * operator)
+     */
+    private static List<Path> parseRoots(String[] args) {
+        var roots = new ArrayList<Path>();
+        for (int i = 0; i < args.length; i++) {
+            var arg = args[i].strip();
+            if (i > 0 && (arg.startsWith("-") || RuleExpression.isOperator(arg))) {
+                break;
+            }
+            roots.add(Path.of(args[i]));
+        }
+        return roots;
+    }
+
+    /**
+     * sets the parallelism of the devices listed as name=threads separated by
+     * commas.
+     */
+    private static void parseDeviceThreads(String[] args, MultiRootSearch search) {
+        var value = parseStringParam(args, DEVICE_THREADS_COMMAND);
+        if (value == null) {
+            return;
+        }
+        for (var device : value.split(",")) {
+            var separator = device.lastIndexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                var threads = Integer.parseInt(device.substring(separator + 1).strip());
+                if (threads > 0) {
+                    search.setParallelism(device.substring(0, separator).strip(), threads);
+                }
+            } catch (NumberFormatException ex) {
+                //not a device setting. ignore it as the other invalid values.
+            }
+        }
+    }
+
+    /**
+     * seeks the first instance of a flag followed by a positive number.
+     *
+     * @return the parsed number or the default value if the flag is not present
+     * or its value is invalid.
+     */
+    private static int parseIntParam(String[] args, String flag, int defaultValue) {
+        for (int i = 0; i < args.length; i++) {
+            if (Objects.equals(args[i].strip(), flag) && i + 1 < args.length) {
+                try {
+                    var value = Integer.parseInt(args[i + 1].strip());
+                    return value > 0 ? value : defaultValue;
+                } catch (NumberFormatException ex) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * seeks the first instance of a flag followed by a depth (0 or more)
+     *
+     * @return the parsed depth or the default value if the flag is not
+     * followed by a number.
+     */
+    private static int parseDepthParam(String[] args, String flag, int defaultValue) {
+        for (int i = 0; i < args.length; i++) {
+            if (Objects.equals(args[i].strip(), flag) && i + 1 < args.length) {
+                try {
+                    var value = Integer.parseInt(args[i + 1].strip());
+                    return value >= 0 ? value : defaultValue;
+                } catch (NumberFormatException ex) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * seeks the first instance of a flag followed by a value.
+     *
+     * @return the value or null if the flag is not present or has no value.
+     */
+    private static String parseStringParam(String[] args, String flag) {
+        for (int i = 0; i < args.length; i++) {
+            if (Objects.equals(args[i].strip(), flag) && i + 1 < args.length
+                    && !args[i + 1].strip().startsWith("-")) {
+                return args[i + 1].strip();
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasFlag(String[] args, String flag) {
+        for (var arg : args) {
+            if (Objects.equals(arg.strip(), flag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * shows the debug details of the search (like the rule evaluation order)
+     * on the standard error.
+     */
+    private static void enableDebugLog() {
+        var logger = Logger.getLogger(RuleExecutor.class.getName());
+        var handler = new ConsoleHandler();
+        handler.setLevel(Level.FINE);
+        logger.setLevel(Level.FINE);
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+    }
+
     private static void includeNonNull(Rule rule, final LinkedList<Rule> rules) {
         if (rule != null) {
             rules.add(rule);
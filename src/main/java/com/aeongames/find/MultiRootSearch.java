@@ -0,0 +1,421 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * searches several folders at once. the folders are grouped by the device
+ * (the {@link FileStore}) they are on and each device is walked on its own
+ * thread. so a slow device (a spinning disk or a network mount) does not
+ * stall the others. the folders of the same device are walked one after the
+ * other. each one with the parallelism of its device. (the amount of folders
+ * of the device listed at once) the results of every device are handed to a
+ * single sink that is never called concurrently.
+ *
+ * @author Eduardo
+ */
+public final class MultiRootSearch {
+
+    private static final Logger LOGGER = Logger.getLogger(MultiRootSearch.class.getName());
+
+    private final List<Rule> Rules;
+    private ExecutionMode Mode = ExecutionMode.SEQUENTIAL;
+    private int Parallelism = 0;
+    private final Map<String, Integer> DeviceParallelism = new HashMap<>();
+    private long Limit = Long.MAX_VALUE;
+    private Duration Timeout = null;
+    private boolean IgnoreIOExceptions = false;
+    private boolean CompileRules = false;
+    private boolean CollectStatistics = false;
+    private boolean RegisterStatistics = false;
+    private boolean FollowLinks = false;
+    private boolean SearchArchives = false;
+    private boolean SearchNestedArchives = false;
+    /**
+     * the executor of each device of the running (or last) search.
+     */
+    private final Map<FileStore, RuleExecutor> Devices = new LinkedHashMap<>();
+    private volatile boolean Cancelled = false;
+    private volatile SearchOutcome Outcome = SearchOutcome.COMPLETED;
+
+    /**
+     * creates the search.
+     *
+     * @param rules the rules to apply on our search for files or directories.
+     */
+    public MultiRootSearch(List<Rule> rules) {
+        Rules = Objects.requireNonNull(rules, "the rules cannot be null");
+    }
+
+    /**
+     * sets how the folders of each device are walked. see
+     * {@link RuleExecutor#setExecutionMode(ExecutionMode)}
+     *
+     * @param mode the mode to use. cannot be null
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        Mode = Objects.requireNonNull(mode, "the execution mode cannot be null");
+    }
+
+    /**
+     * sets the parallelism of each device. see
+     * {@link RuleExecutor#setParallelism(int)}
+     *
+     * @param level the amount of threads (or folders listed at once) per
+     * device. must be 1 or more
+     */
+    public void setParallelism(int level) {
+        if (level < 1) {
+            throw new IllegalArgumentException("the parallelism level must be 1 or more");
+        }
+        Parallelism = level;
+    }
+
+    /**
+     * sets the parallelism of a single device. (like a slow network mount) if
+     * several devices share the name (like tmpfs) it applies to all of them.
+     *
+     * @param device the name of the device. see {@link FileStore#name()}
+     * @param level the amount of threads (or folders listed at once) for the
+     * device. must be 1 or more
+     */
+    public void setParallelism(String device, int level) {
+        if (level < 1) {
+            throw new IllegalArgumentException("the parallelism level must be 1 or more");
+        }
+        DeviceParallelism.put(Objects.requireNonNull(device, "the device cannot be null"), level);
+    }
+
+    /**
+     * sets the maximal amount of results across all the folders. every device
+     * stops as soon as the limit is reached.
+     *
+     * @param maxResults the maximal amount of results. must be 1 or more
+     */
+    public void setLimit(long maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("the limit must be 1 or more");
+        }
+        Limit = maxResults;
+    }
+
+    /**
+     * sets the maximal time the whole search can take.
+     *
+     * @param maxTime the maximal time or null for no timeout.
+     */
+    public void setTimeout(Duration maxTime) {
+        if (maxTime != null && (maxTime.isNegative() || maxTime.isZero())) {
+            throw new IllegalArgumentException("the timeout must be positive");
+        }
+        Timeout = maxTime;
+    }
+
+    public void setIgnoreIOExceptions(boolean ignore) {
+        IgnoreIOExceptions = ignore;
+    }
+
+    /**
+     * see {@link RuleExecutor#setCompileRules(boolean)}
+     *
+     * @param compile true to compile the rules.
+     */
+    public void setCompileRules(boolean compile) {
+        CompileRules = compile;
+    }
+
+    /**
+     * see {@link RuleExecutor#setFollowLinks(boolean)} (the folders are
+     * tracked per device. a link to a folder on another device is walked by
+     * the device of the link)
+     *
+     * @param follow true to follow the links.
+     */
+    public void setFollowLinks(boolean follow) {
+        FollowLinks = follow;
+    }
+
+    /**
+     * see {@link RuleExecutor#setSearchArchives(boolean)}
+     *
+     * @param search true to look inside the archives.
+     */
+    public void setSearchArchives(boolean search) {
+        SearchArchives = search;
+    }
+
+    /**
+     * see {@link RuleExecutor#setSearchNestedArchives(boolean)}
+     *
+     * @param nested true to look inside nested archives.
+     */
+    public void setSearchNestedArchives(boolean nested) {
+        SearchNestedArchives = nested;
+    }
+
+    /**
+     * sets whenever the statistics of each device are collected. see
+     * {@link #getStatistics()}
+     *
+     * @param collect true to collect the statistics.
+     */
+    public void setCollectStatistics(boolean collect) {
+        CollectStatistics = collect;
+    }
+
+    /**
+     * sets whenever the statistics of each device are registered as a MXBean
+     * (named as the device) once the search starts. so they can be followed
+     * while searching. only when they are collected.
+     *
+     * @param register true to register them.
+     */
+    public void setRegisterStatistics(boolean register) {
+        RegisterStatistics = register;
+    }
+
+    /**
+     * the statistics of each device of the running or last search.
+     *
+     * @return the statistics by device. (its mount point and name) empty if
+     * they are not collected.
+     */
+    public synchronized Map<String, SearchStatistics> getStatistics() {
+        var statistics = new LinkedHashMap<String, SearchStatistics>();
+        Devices.forEach((device, executor) -> {
+            if (executor.getStatistics() != null) {
+                statistics.put(device.toString(), executor.getStatistics());
+            }
+        });
+        return statistics;
+    }
+
+    /**
+     * cancels the running search on every device.
+     */
+    public void cancel() {
+        Cancelled = true;
+        stop(SearchOutcome.CANCELLED);
+    }
+
+    /**
+     * how the last search ended.
+     *
+     * @return the outcome of the last search.
+     */
+    public SearchOutcome getOutcome() {
+        return Outcome;
+    }
+
+    private synchronized void stop(SearchOutcome reason) {
+        if (Outcome == SearchOutcome.COMPLETED) {
+            Outcome = reason;
+        }
+        Devices.values().forEach(RuleExecutor::cancel);
+    }
+
+    /**
+     * walks the folders and hands each path that matches the rules to the
+     * sink. a folder that is under another one is only walked once. a device
+     * that fails does not stop the others. the first error is thrown once
+     * every device ended (with the other errors as suppressed)
+     *
+     * @param roots the folders to search.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @throws IOException if any folder cannot be walked.
+     */
+    public void search(List<Path> roots, BiConsumer<? super Path, ? super BasicFileAttributes> sink) throws IOException {
+        Objects.requireNonNull(sink, "the sink cannot be null");
+        var errors = new ArrayList<Exception>();
+        var devices = groupByDevice(distinct(roots), errors);
+        synchronized (this) {
+            Devices.clear();
+            Outcome = Cancelled ? SearchOutcome.CANCELLED : SearchOutcome.COMPLETED;
+            devices.keySet().forEach(device -> Devices.put(device, newExecutor(device)));
+        }
+        var deadline = Timeout == null ? 0 : System.nanoTime() + Timeout.toNanos();
+        var merged = mergedSink(sink);
+        var threads = new ArrayList<Thread>(devices.size());
+        devices.forEach((device, folders) -> {
+            var executor = Devices.get(device);
+            threads.add(Thread.ofPlatform().name("find-device-" + device.name()).start(() -> {
+                for (var folder : folders) {
+                    if (executor.isCancelled()) {
+                        return;
+                    }
+                    try {
+                        if (!setRemaining(executor, deadline)) {
+                            return;
+                        }
+                        executor.ExecuteRuleWithAttributes(folder, true, merged);
+                        if (executor.getOutcome() == SearchOutcome.TIMED_OUT) {
+                            stop(SearchOutcome.TIMED_OUT);
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        LOGGER.log(Level.WARNING, "the search of " + folder + " failed", ex);
+                        synchronized (errors) {
+                            errors.add(ex);
+                        }
+                    }
+                }
+            }));
+        });
+        try {
+            for (var thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new InterruptedIOException("interrupted while waiting for the devices");
+        }
+        throwFirst(errors);
+    }
+
+    /**
+     * sets the time left of the search as the timeout of the executor.
+     *
+     * @return false if there is no time left.
+     */
+    private boolean setRemaining(RuleExecutor executor, long deadline) {
+        if (Timeout == null) {
+            return true;
+        }
+        var remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            stop(SearchOutcome.TIMED_OUT);
+            return false;
+        }
+        executor.setTimeout(Duration.ofNanos(remaining));
+        return true;
+    }
+
+    private RuleExecutor newExecutor(FileStore device) {
+        var executor = new RuleExecutor(Rules);
+        //the folders of the device add up to a single search.
+        executor.setAccumulate(true);
+        executor.setExecutionMode(Mode);
+        var level = DeviceParallelism.getOrDefault(device.name(), Parallelism);
+        if (level > 0) {
+            executor.setParallelism(level);
+        }
+        executor.setIgnoreIOExceptions(IgnoreIOExceptions);
+        executor.setCompileRules(CompileRules);
+        executor.setCollectStatistics(CollectStatistics);
+        if (CollectStatistics && RegisterStatistics) {
+            executor.getStatistics().register(device.toString());
+        }
+        executor.setFollowLinks(FollowLinks);
+        executor.setSearchArchives(SearchArchives);
+        executor.setSearchNestedArchives(SearchNestedArchives);
+        if (Cancelled) {
+            executor.cancel();
+        }
+        return executor;
+    }
+
+    /**
+     * a sink shared by every device. it is never called concurrently and
+     * stops every device once the limit is reached.
+     */
+    private BiConsumer<Path, BasicFileAttributes> mergedSink(
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        var lock = new Object();
+        var emitted = new long[1];
+        return (path, attributes) -> {
+            synchronized (lock) {
+                if (emitted[0] >= Limit) {
+                    return;
+                }
+                sink.accept(path, attributes);
+                if (++emitted[0] >= Limit) {
+                    stop(SearchOutcome.LIMIT_REACHED);
+                }
+            }
+        };
+    }
+
+    /**
+     * the absolute folders without the ones under another folder. (they would
+     * be walked twice)
+     */
+    private static List<Path> distinct(List<Path> roots) {
+        var absolute = new ArrayList<Path>(roots.size());
+        for (var root : roots) {
+            var folder = root.toAbsolutePath().normalize();
+            if (!absolute.contains(folder)) {
+                absolute.add(folder);
+            }
+        }
+        var distinct = new ArrayList<Path>(absolute.size());
+        for (var folder : absolute) {
+            var nested = absolute.stream().anyMatch(other -> !other.equals(folder) && folder.startsWith(other));
+            if (!nested) {
+                distinct.add(folder);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * groups the folders by the device they are on. (keeping the order they
+     * were provided)
+     */
+    private static Map<FileStore, List<Path>> groupByDevice(List<Path> roots, List<Exception> errors) {
+        var devices = new LinkedHashMap<FileStore, List<Path>>();
+        for (var root : roots) {
+            FileStore store;
+            try {
+                store = Files.getFileStore(root);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "the device of {0} cannot be read. it is not searched", root);
+                errors.add(ex);
+                continue;
+            }
+            devices.computeIfAbsent(store, device -> new ArrayList<>()).add(root);
+        }
+        return devices;
+    }
+
+    private static void throwFirst(List<Exception> errors) throws IOException {
+        if (errors.isEmpty()) {
+            return;
+        }
+        var first = errors.get(0);
+        for (int i = 1; i < errors.size(); i++) {
+            first.addSuppressed(errors.get(i));
+        }
+        if (first instanceof IOException io) {
+            throw io;
+        }
+        throw (RuntimeException) first;
+    }
+}
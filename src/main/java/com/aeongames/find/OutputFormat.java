@@ -0,0 +1,86 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import java.util.Objects;
+
+/**
+ * how {@link ResultWriter} writes each result.
+ *
+ * @author Eduardo
+ */
+public enum OutputFormat {
+    /**
+     * the size and the path. one per line. (the original output)
+     */
+    HUMAN("human"),
+    /**
+     * only the path followed by a null character. so any file name is safe to
+     * use with xargs -0
+     */
+    PRINT0("print0"),
+    /**
+     * a JSON object per line with the path, type, size and modified time.
+     */
+    NDJSON("ndjson"),
+    /**
+     * comma separated values with a header. the path is quoted if required.
+     */
+    CSV("csv");
+
+    public static final String COMMAND = "-format";
+    /**
+     * a shortcut for -format print0
+     */
+    public static final String PRINT0_COMMAND = "-print0";
+
+    /**
+     * gets the output format depending on the Command Line parameters
+     *
+     * @param CMDLine an array of command line parameters
+     * @return the requested format. {@link #HUMAN} if not present or invalid.
+     */
+    public static final OutputFormat Parse(String[] CMDLine) {
+        for (int i = 0; i < CMDLine.length; i++) {
+            var flag = CMDLine[i].strip();
+            if (Objects.equals(flag, PRINT0_COMMAND)) {
+                return PRINT0;
+            }
+            if (Objects.equals(flag, COMMAND) && i + 1 < CMDLine.length) {
+                var value = CMDLine[i + 1].strip();
+                for (var format : values()) {
+                    if (format.Name.equalsIgnoreCase(value)) {
+                        return format;
+                    }
+                }
+                return HUMAN;
+            }
+        }
+        return HUMAN;
+    }
+
+    private final String Name;
+
+    private OutputFormat(String name) {
+        Name = name;
+    }
+
+    /**
+     * the name of this format as used on the command line
+     *
+     * @return the name of this format
+     */
+    public String getName() {
+        return Name;
+    }
+}
@@ -0,0 +1,44 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * a flight recorder event for the results of a folder handed to the sink.
+ * the output time includes waiting for other workers using the sink.
+ *
+ * @author Eduardo
+ */
+@Name("com.aeongames.find.ResultOutput")
+@Label("Result Output")
+@Category({"Find"})
+@StackTrace(false)
+@Description("the results of a folder handed to the sink")
+final class ResultOutputEvent extends jdk.jfr.Event {
+
+    @Label("Directory")
+    String directory;
+
+    @Label("Results")
+    long results;
+
+    @Label("Output Time")
+    @Timespan
+    long outputTime;
+}
@@ -0,0 +1,492 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.utils.sizes;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * writes the results of a search on one of the {@link OutputFormat}s. it is
+ * a sink (see {@link RuleExecutor#ExecuteRuleWithAttributes}) so each result
+ * is written as soon as it is found.
+ * <p>
+ * the output is buffered and only flushed when the buffer is full or on
+ * {@link #flush()} and {@link #close()} each result is built on a reused
+ * builder without String.format and the attributes read while matching are
+ * reused. only a symbolic link is read again (its size is the one of the
+ * target)
+ * <p>
+ * besides the results it writes the records of the analysis (the top files,
+ * the folder totals and the duplicates) each {@link Kind} of record has its
+ * own csv columns. so a writer only writes one kind.
+ * <p>
+ * it is not thread safe. the executor never calls a sink concurrently.
+ *
+ * @author Eduardo
+ */
+public final class ResultWriter implements BiConsumer<Path, BasicFileAttributes>, Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * the decimal separator of the default locale. the same String.format
+     * uses.
+     */
+    private static final char DECIMAL_SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    /**
+     * the kind of records a writer writes.
+     */
+    public enum Kind {
+        /**
+         * the paths found. (and the top files and watch removals)
+         */
+        RESULTS("path,type,size,modified"),
+        /**
+         * the totals of each folder. see {@link #writeTotal}
+         */
+        TOTALS("path,depth,size,files,directories"),
+        /**
+         * the groups of duplicated files. see {@link #writeDuplicates}
+         */
+        DUPLICATES("group,size,wasted,path");
+
+        private final String Header;
+
+        private Kind(String header) {
+            Header = header;
+        }
+    }
+
+    private final Writer Out;
+    private final OutputFormat Format;
+    private int Groups = 0;
+    private final StringBuilder Line = new StringBuilder(256);
+
+    /**
+     * creates a writer.
+     *
+     * @param out where to write the results. closed when this writer is.
+     * @param charset the charset of the output.
+     * @param format how to write each result.
+     */
+    public ResultWriter(OutputStream out, Charset charset, OutputFormat format) {
+        this(new OutputStreamWriter(out, charset), format);
+    }
+
+    /**
+     * creates a writer of a kind of records.
+     *
+     * @param out where to write the records. closed when this writer is.
+     * @param charset the charset of the output.
+     * @param format how to write each record.
+     * @param kind the records to write. (it sets the csv header)
+     */
+    public ResultWriter(OutputStream out, Charset charset, OutputFormat format, Kind kind) {
+        this(new OutputStreamWriter(out, charset), format, kind);
+    }
+
+    /**
+     * creates a writer.
+     *
+     * @param out where to write the results. closed when this writer is.
+     * @param format how to write each result.
+     */
+    public ResultWriter(Writer out, OutputFormat format) {
+        this(out, format, Kind.RESULTS);
+    }
+
+    /**
+     * creates a writer of a kind of records.
+     *
+     * @param out where to write the records. closed when this writer is.
+     * @param format how to write each record.
+     * @param kind the records to write. (it sets the csv header)
+     */
+    public ResultWriter(Writer out, OutputFormat format, Kind kind) {
+        Out = new BufferedWriter(out, BUFFER_SIZE);
+        Format = Objects.requireNonNull(format, "the format cannot be null");
+        Objects.requireNonNull(kind, "the kind cannot be null");
+        if (Format == OutputFormat.CSV) {
+            //even if there are no results. it is buffered so it cannot fail yet.
+            try {
+                Out.write(kind.Header);
+                Out.write("\r\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * writes a result.
+     *
+     * @param path the path that matched.
+     * @param attributes its attributes or null if not available.
+     * @throws UncheckedIOException if the result cannot be written.
+     */
+    @Override
+    public void accept(Path path, BasicFileAttributes attributes) {
+        try {
+            write(path, attributes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * same as {@link #accept(Path, BasicFileAttributes)} but throws the
+     * checked exception.
+     *
+     * @param path the path that matched.
+     * @param attributes its attributes or null if not available.
+     * @throws IOException if the result cannot be written or the size of the
+     * file cannot be read.
+     */
+    public void write(Path path, BasicFileAttributes attributes) throws IOException {
+        Line.setLength(0);
+        switch (Format) {
+            case HUMAN -> {
+                Line.append("File Size ");
+                appendSize(Line, sizeOf(path, attributes));
+                Line.append(' ').append(path.toString()).append(System.lineSeparator());
+            }
+            case PRINT0 -> Line.append(path.toString()).append('\0');
+            case NDJSON -> {
+                Line.append("{\"path\":");
+                appendJsonString(Line, path.toString());
+                Line.append(",\"type\":\"").append(typeOf(attributes)).append("\",\"size\":")
+                        .append(sizeOf(path, attributes)).append(",\"modified\":")
+                        .append(attributes != null ? attributes.lastModifiedTime().toMillis() : -1)
+                        .append("}\n");
+            }
+            case CSV -> {
+                appendCsvField(Line, path.toString());
+                Line.append(',').append(typeOf(attributes)).append(',')
+                        .append(sizeOf(path, attributes)).append(',')
+                        .append(attributes != null ? attributes.lastModifiedTime().toMillis() : -1)
+                        .append("\r\n");
+            }
+        }
+        Out.append(Line);
+    }
+
+    /**
+     * writes a path that was removed (see {@link LiveSearch}) on the same
+     * format as the results. on print0 it is an empty record followed by the
+     * path (no path is empty) on ndjson and csv it is a record with type
+     * "removed" and no size or modified time (-1)
+     *
+     * @param path the path that was removed.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeRemoved(Path path) throws IOException {
+        Line.setLength(0);
+        switch (Format) {
+            case HUMAN -> Line.append("Removed ").append(path.toString()).append(System.lineSeparator());
+            case PRINT0 -> Line.append('\0').append(path.toString()).append('\0');
+            case NDJSON -> {
+                Line.append("{\"path\":");
+                appendJsonString(Line, path.toString());
+                Line.append(",\"type\":\"removed\",\"size\":-1,\"modified\":-1}\n");
+            }
+            case CSV -> {
+                appendCsvField(Line, path.toString());
+                Line.append(",removed,-1,-1\r\n");
+            }
+        }
+        Out.append(Line);
+    }
+
+    /**
+     * writes one of the biggest (or newest) files. as a result. but the human
+     * format also shows when it was modified.
+     *
+     * @param file the file.
+     * @param size its size.
+     * @param modified when it was modified.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeRanked(Path file, long size, FileTime modified) throws IOException {
+        if (Format != OutputFormat.HUMAN) {
+            write(file, new RankedAttributes(size, modified));
+            return;
+        }
+        Line.setLength(0);
+        Line.append("Modified ").append(modified).append(" File Size ");
+        appendSize(Line, size);
+        Line.append(' ').append(file.toString()).append(System.lineSeparator());
+        Out.append(Line);
+    }
+
+    /**
+     * writes the totals of a folder. (see {@link Kind#TOTALS})
+     *
+     * @param directory the folder.
+     * @param depth its depth. the base folder is 0
+     * @param size the size of the files under it.
+     * @param files the amount of files under it.
+     * @param directories the amount of folders under it.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeTotal(Path directory, int depth, long size, long files, long directories) throws IOException {
+        Line.setLength(0);
+        switch (Format) {
+            case HUMAN -> {
+                Line.append("Total Size ");
+                appendSize(Line, size);
+                Line.append(" Files ").append(files).append(' ').append(directory.toString())
+                        .append(System.lineSeparator());
+            }
+            case PRINT0 -> Line.append(directory.toString()).append('\0');
+            case NDJSON -> {
+                Line.append("{\"path\":");
+                appendJsonString(Line, directory.toString());
+                Line.append(",\"depth\":").append(depth).append(",\"size\":").append(size)
+                        .append(",\"files\":").append(files).append(",\"directories\":").append(directories)
+                        .append("}\n");
+            }
+            case CSV -> {
+                appendCsvField(Line, directory.toString());
+                Line.append(',').append(depth).append(',').append(size).append(',').append(files)
+                        .append(',').append(directories).append("\r\n");
+            }
+        }
+        Out.append(Line);
+    }
+
+    /**
+     * writes a group of files with the same content. (see
+     * {@link Kind#DUPLICATES}) on print0 each group ends with a empty record.
+     *
+     * @param size the size of each file.
+     * @param wasted the bytes used by the copies.
+     * @param files the files of the group.
+     * @throws IOException if it cannot be written.
+     */
+    public void writeDuplicates(long size, long wasted, List<Path> files) throws IOException {
+        Line.setLength(0);
+        var group = ++Groups;
+        switch (Format) {
+            case HUMAN -> {
+                Line.append("Duplicates ").append(files.size()).append(" files of ");
+                appendSize(Line, size);
+                Line.append(" wasting ");
+                appendSize(Line, wasted);
+                Line.append(System.lineSeparator());
+                for (var file : files) {
+                    Line.append("  ").append(file.toString()).append(System.lineSeparator());
+                }
+            }
+            case PRINT0 -> {
+                for (var file : files) {
+                    Line.append(file.toString()).append('\0');
+                }
+                Line.append('\0');
+            }
+            case NDJSON -> {
+                Line.append("{\"size\":").append(size).append(",\"wasted\":").append(wasted).append(",\"files\":[");
+                for (int i = 0; i < files.size(); i++) {
+                    if (i > 0) {
+                        Line.append(',');
+                    }
+                    appendJsonString(Line, files.get(i).toString());
+                }
+                Line.append("]}\n");
+            }
+            case CSV -> {
+                for (var file : files) {
+                    Line.append(group).append(',').append(size).append(',').append(wasted).append(',');
+                    appendCsvField(Line, file.toString());
+                    Line.append("\r\n");
+                }
+            }
+        }
+        Out.append(Line);
+    }
+
+    private static long sizeOf(Path path, BasicFileAttributes attributes) throws IOException {
+        //reuse the attributes unless it is a link. the size shown is the one of the target.
+        if (attributes == null) {
+            return Files.size(path);
+        }
+        if (!attributes.isSymbolicLink()) {
+            return attributes.size();
+        }
+        try {
+            return Files.size(path);
+        } catch (IOException ex) {
+            //a broken link. show the size of the link itself.
+            return attributes.size();
+        }
+    }
+
+    /**
+     * the attributes of a ranked file. only what the output shows.
+     */
+    private record RankedAttributes(long size, FileTime lastModifiedTime) implements BasicFileAttributes {
+
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModifiedTime;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return lastModifiedTime;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return true;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+
+    private static String typeOf(BasicFileAttributes attributes) {
+        if (attributes == null) {
+            return "unknown";
+        } else if (attributes.isDirectory()) {
+            return "directory";
+        } else if (attributes.isSymbolicLink()) {
+            return "link";
+        } else if (attributes.isRegularFile()) {
+            return "file";
+        }
+        return "other";
+    }
+
+    /**
+     * appends a size on the biggest unit that fits it with 2 decimals (like
+     * 1.25 MB) the same as String.format("%.2f") (with the decimal separator
+     * of the default locale) but without parsing a format on each call.
+     *
+     * @param builder where to append it
+     * @param bytes the size to append
+     */
+    static void appendSize(StringBuilder builder, long bytes) {
+        sizes touse;
+        if (bytes >= sizes.GigaByte.size()) {
+            touse = sizes.GigaByte;
+        } else if (bytes >= sizes.MegaByte.size()) {
+            touse = sizes.MegaByte;
+        } else if (bytes >= sizes.KiloByte.size()) {
+            touse = sizes.KiloByte;
+        } else {
+            touse = sizes.bytee;
+        }
+        var hundredths = Math.round(bytes * 100d / touse.size());
+        builder.append(hundredths / 100).append(DECIMAL_SEPARATOR);
+        var decimals = hundredths % 100;
+        if (decimals < 10) {
+            builder.append('0');
+        }
+        builder.append(decimals).append(' ').append(touse.getSuffix());
+    }
+
+    /**
+     * formats a size. see {@link #appendSize(StringBuilder, long)}
+     */
+    static String formatSize(long bytes) {
+        var builder = new StringBuilder(16);
+        appendSize(builder, bytes);
+        return builder.toString();
+    }
+
+    private static void appendJsonString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static void appendCsvField(StringBuilder builder, String value) {
+        var quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            var c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            builder.append(value);
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"') {
+                builder.append('"');
+            }
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        Out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Out.close();
+    }
+}
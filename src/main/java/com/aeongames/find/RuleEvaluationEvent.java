@@ -0,0 +1,50 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * a flight recorder event for the evaluation of a rule on the entries of a
+ * folder. one per rule that evaluated at least one entry of the folder.
+ *
+ * @author Eduardo
+ */
+@Name("com.aeongames.find.RuleEvaluation")
+@Label("Rule Evaluation")
+@Category({"Find"})
+@StackTrace(false)
+@Description("the evaluations of a rule on the entries of a folder")
+final class RuleEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Directory")
+    String directory;
+
+    @Label("Rule")
+    String rule;
+
+    @Label("Evaluated")
+    long evaluated;
+
+    @Label("Rejected")
+    long rejected;
+
+    @Label("Evaluation Time")
+    @Timespan
+    long evaluationTime;
+}
@@ -14,11 +14,30 @@ package com.aeongames.find;
 
 import com.aeongames.find.Rules.Rule;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * a functional Interface that defines a execution routine to process a specific
@@ -28,21 +47,299 @@ import java.util.List;
  */
 public class RuleExecutor {
 
+    private static final Logger LOGGER = Logger.getLogger(RuleExecutor.class.getName());
+
     private boolean ignoreIOexeption = false;
+    private ExecutionMode executionMode = ExecutionMode.SEQUENTIAL;
+    /**
+     * the requested parallelism. 0 means use the execution mode default.
+     */
+    private int parallelism = 0;
     private final List<Rule> rules;
+    private AdaptiveRuleOrder ruleOrder;
+    private long limit = Long.MAX_VALUE;
+    private Duration timeout = null;
+    /**
+     * set once the running search must stop. checked before each entry.
+     */
+    private volatile boolean stopRequested = false;
+    private volatile boolean cancelled = false;
+    private volatile SearchOutcome outcome = SearchOutcome.COMPLETED;
+    /**
+     * the System.nanoTime when the running search times out. only valid if
+     * there is a timeout.
+     */
+    private long deadline;
+    /**
+     * the statistics of the running (or last) search. null when they are not
+     * collected. so the only cost when disabled is the null check.
+     */
+    private SearchStatistics statistics = null;
+    private boolean compileRules = false;
+    /**
+     * the rules compiled into a single predicate. null if they are not
+     * compiled.
+     */
+    private volatile CompiledRules compiled = null;
+    private boolean followLinks = false;
+    /**
+     * the folders walked by the running search. null if links are not
+     * followed.
+     */
+    private volatile VisitedDirectories visited = null;
+    private boolean searchArchives = false;
+    private boolean searchNestedArchives = false;
+    /**
+     * looks inside the archives of the running search. null if they are not
+     * searched.
+     */
+    private volatile ArchiveSearch archives = null;
+    /**
+     * follows the folders of the running search. null if nobody does.
+     */
+    private volatile FolderListener folders = null;
+    /**
+     * whenever the searches add up to the previous ones. see
+     * {@link #setAccumulate(boolean)}
+     */
+    private boolean accumulate = false;
+    /**
+     * whenever a search already started. so there is something to add up to.
+     */
+    private boolean started = false;
 
     public RuleExecutor(List<Rule> tharules) {
         rules = tharules;
+        ruleOrder = new AdaptiveRuleOrder(rules, true);
     }
 
     public void setIgnoreIOExceptions(boolean ignore) {
         ignoreIOexeption = ignore;
+        recompile();
+    }
+
+    /**
+     * sets whenever the rules are compiled into a single predicate for each
+     * search. (on the order the adaptive order estimates at the moment)
+     * instead of being evaluated on a loop. the compiled rules are not used
+     * while collecting statistics or recording flight recorder events. and
+     * while used the rule order is not adapted.
+     *
+     * @param compile true to compile the rules.
+     */
+    public void setCompileRules(boolean compile) {
+        compileRules = compile;
+        recompile();
+    }
+
+    private void recompile() {
+        if (!compileRules) {
+            compiled = null;
+            return;
+        }
+        var order = ruleOrder;
+        var ordered = new ArrayList<Rule>(rules.size());
+        for (int index : order.order()) {
+            ordered.add(order.rule(index));
+        }
+        compiled = new CompiledRules(ordered, ignoreIOexeption);
+    }
+
+    /**
+     * sets whenever the links are followed. a link to a folder is walked as a
+     * folder and the rules see the attributes of the target. (a broken link
+     * is still seen as a link) each folder is walked once even if several
+     * links lead to it. so cycles end. it is disabled by default.
+     *
+     * @param follow true to follow the links.
+     */
+    public void setFollowLinks(boolean follow) {
+        followLinks = follow;
+    }
+
+    /**
+     * sets whenever the search looks inside the zip archives (jar, war...)
+     * their entries are matched as files named after the archive (like
+     * app.jar!/META-INF/MANIFEST.MF) with their uncompressed size. nothing is
+     * extracted. it is disabled by default.
+     *
+     * @param search true to look inside the archives.
+     */
+    public void setSearchArchives(boolean search) {
+        searchArchives = search;
+    }
+
+    /**
+     * sets whenever the search also looks inside the archives found inside
+     * other archives. (they are read on memory) it only applies if the
+     * archives are searched. it is disabled by default.
+     *
+     * @param nested true to look inside nested archives.
+     */
+    public void setSearchNestedArchives(boolean nested) {
+        searchNestedArchives = nested;
+    }
+
+    /**
+     * sets whenever the rules are reordered while searching so the cheap rules
+     * that reject the most are evaluated first. it is enabled by default.
+     * changing it resets the observed statistics.
+     *
+     * @param adaptive true to reorder the rules. false to evaluate them on the
+     * order they were provided.
+     */
+    public void setAdaptiveRuleOrder(boolean adaptive) {
+        ruleOrder = new AdaptiveRuleOrder(rules, adaptive);
+        recompile();
+    }
+
+    /**
+     * describes the order on which the rules are currently evaluated with how
+     * many of the sampled paths each one evaluated and rejected. intended for
+     * debugging.
+     *
+     * @return a multi line description of the rule order
+     */
+    public String getRuleOrderStatistics() {
+        return ruleOrder.describe();
+    }
+
+    /**
+     * sets whenever the statistics of the search (folders listed, entries
+     * visited, attribute reads, ignored IOExceptions and the evaluations,
+     * rejections and time of each rule) are collected. it is disabled by
+     * default. as timing each rule has a small cost.
+     *
+     * @param collect true to collect the statistics.
+     */
+    public void setCollectStatistics(boolean collect) {
+        if (!collect) {
+            statistics = null;
+        } else if (statistics == null) {
+            statistics = new SearchStatistics(rules);
+        }
+    }
+
+    /**
+     * the statistics of the running or last search. they are updated live so
+     * they can be read while the search runs.
+     *
+     * @return the statistics or null if they are not being collected. see
+     * {@link #setCollectStatistics(boolean)}
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * sets how the folder tree is walked. by default it is walked
+     * sequentially.
+     *
+     * @param mode the mode to use. cannot be null
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        executionMode = Objects.requireNonNull(mode, "the execution mode cannot be null");
+    }
+
+    /**
+     * sets the amount of worker threads to use when the execution mode is
+     * {@link ExecutionMode#PARALLEL} or the amount of folders listed at once
+     * when it is {@link ExecutionMode#VIRTUAL}. by default is
+     * {@link ExecutionMode#getDefaultParallelism()}
+     *
+     * @param level the amount of threads. must be 1 or more
+     */
+    public void setParallelism(int level) {
+        if (level < 1) {
+            throw new IllegalArgumentException("the parallelism level must be 1 or more");
+        }
+        parallelism = level;
+    }
+
+    /**
+     * sets the maximal amount of results. the search stops (including any
+     * concurrent worker) as soon as the limit is reached. by default there is
+     * no limit.
+     *
+     * @param maxResults the maximal amount of results. must be 1 or more
+     */
+    public void setLimit(long maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("the limit must be 1 or more");
+        }
+        limit = maxResults;
+    }
+
+    /**
+     * sets the maximal time a search can take. once it expires the search
+     * stops and keeps the results found so far. by default there is no
+     * timeout.
+     *
+     * @param maxTime the maximal time or null for no timeout.
+     */
+    public void setTimeout(Duration maxTime) {
+        if (maxTime != null && (maxTime.isNegative() || maxTime.isZero())) {
+            throw new IllegalArgumentException("the timeout must be positive");
+        }
+        timeout = maxTime;
+    }
+
+    /**
+     * cancels the running search (it can be called from any thread). the
+     * search stops as soon as possible and keeps the results found so far.
+     * once cancelled the executor stays cancelled. any later search ends
+     * right away.
+     */
+    public void cancel() {
+        cancelled = true;
+        stop(SearchOutcome.CANCELLED);
+    }
+
+    /**
+     * whenever {@link #cancel()} was called.
+     *
+     * @return true if this executor was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * how the last search ended.
+     *
+     * @return the outcome of the last search.
+     */
+    public SearchOutcome getOutcome() {
+        return outcome;
+    }
+
+    private void stop(SearchOutcome reason) {
+        if (!stopRequested) {
+            outcome = reason;
+            stopRequested = true;
+        }
+    }
+
+    /**
+     * checks whenever the running search must stop. it is called before each
+     * entry and folder.
+     */
+    private boolean shouldStop() {
+        if (stopRequested) {
+            return true;
+        }
+        if (timeout != null && System.nanoTime() - deadline > 0) {
+            stop(SearchOutcome.TIMED_OUT);
+            return true;
+        }
+        return false;
     }
 
     /**
      * loops the folder (in a recursive if required) and seeks and matches the
      * Rules for each file/folder and return a list of path that matches the
-     * rules
+     * rules. when the execution mode is not sequential the list contains the
+     * same path's but on the order they were found.
      *
      * @param ParentPath the folder from which start the search
      * @param recursive whenever to look recursively
@@ -51,22 +348,563 @@ public class RuleExecutor {
      * files or files metadata.
      */
     public List<Path> ExecuteRule(Path ParentPath, boolean recursive) throws IOException {
-        //assume at this point caller alredy check existance, folder and readability.
         LinkedList<Path> results = new LinkedList<>();
+        ExecuteRule(ParentPath, recursive, results::add);
+        return results;
+    }
+
+    /**
+     * loops the folder (in a recursive if required) and seeks and matches the
+     * Rules for each file/folder. each path that matches the rules is handed
+     * to the sink as soon as it is found. so nothing is accumulated. the sink
+     * is never called concurrently, even when the execution mode is not
+     * sequential. the search stops early if there is a limit, a timeout or it
+     * is cancelled. see {@link #getOutcome()}
+     *
+     * @param ParentPath the folder from which start the search
+     * @param recursive whenever to look recursively
+     * @param sink the consumer that receives each path that matches the rules
+     * @throws IOException if there was a I/O problem navigating or reading the
+     * files or files metadata.
+     */
+    public void ExecuteRule(Path ParentPath, boolean recursive, Consumer<? super Path> sink) throws IOException {
+        Objects.requireNonNull(sink, "the sink cannot be null");
+        ExecuteRuleWithAttributes(ParentPath, recursive, (path, attributes) -> sink.accept(path));
+    }
+
+    /**
+     * same as {@link #ExecuteRule(Path, boolean, Consumer)} but the sink also
+     * receives the attributes read for the path while matching it. so the
+     * caller does not need to read them again. the attributes can be null if
+     * they could not be read.
+     *
+     * @param ParentPath the folder from which start the search
+     * @param recursive whenever to look recursively
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @throws IOException if there was a I/O problem navigating or reading the
+     * files or files metadata.
+     */
+    public void ExecuteRuleWithAttributes(Path ParentPath, boolean recursive,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) throws IOException {
+        ExecuteRuleWithAttributes(ParentPath, recursive, sink, null);
+    }
+
+    /**
+     * same as {@link #ExecuteRuleWithAttributes(Path, boolean, BiConsumer)}
+     * but the listener is also told of each folder walked. (so the results
+     * can be aggregated by folder)
+     *
+     * @param ParentPath the folder from which start the search
+     * @param recursive whenever to look recursively
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @param listener the listener of the folders walked. or null
+     * @throws IOException if there was a I/O problem navigating or reading the
+     * files or files metadata.
+     */
+    public void ExecuteRuleWithAttributes(Path ParentPath, boolean recursive,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink, FolderListener listener) throws IOException {
+        var continued = accumulate && started;
+        var guarded = begin(sink);
+        var stats = statistics;
+        if (!continued || visited == null) {
+            visited = followLinks ? new VisitedDirectories() : null;
+        }
+        archives = searchArchives ? new ArchiveSearch(this, searchNestedArchives) : null;
+        folders = listener;
+        if (visited != null && !visited.add(ParentPath, Files.readAttributes(ParentPath, BasicFileAttributes.class))) {
+            //a link of a previous search already walked it.
+            if (stats != null) {
+                stats.finished();
+            }
+            return;
+        }
+        try {
+            switch (executionMode) {
+                case PARALLEL -> ExecuteParallel(ParentPath, recursive, guarded);
+                case VIRTUAL -> ExecuteVirtual(ParentPath, recursive, guarded);
+                case SEQUENTIAL -> ExecuteSequential(ParentPath, 0, recursive, guarded);
+            }
+        } finally {
+            if (stats != null) {
+                stats.finished();
+            }
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(ruleOrder.describe());
+            if (visited != null) {
+                LOGGER.log(Level.FINE, "{0} distinct folders walked following links", visited.size());
+            }
+        }
+    }
+
+    /**
+     * runs a search that does not walk the file system (like a query over a
+     * snapshot) with the limit, timeout, cancel and statistics of this
+     * executor. the search hands its results to the sink it receives and
+     * must check {@link #isStopping()} before each entry.
+     *
+     * @param search the search to run
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @throws IOException if the search failed.
+     */
+    public void ExecuteSearch(Search search, BiConsumer<? super Path, ? super BasicFileAttributes> sink) throws IOException {
+        Objects.requireNonNull(search, "the search cannot be null");
+        var guarded = begin(sink);
+        var stats = statistics;
+        try {
+            search.run(guarded);
+        } finally {
+            if (stats != null) {
+                stats.finished();
+            }
+        }
+    }
+
+    /**
+     * a search run by {@link #ExecuteSearch(Search, BiConsumer)}
+     */
+    @FunctionalInterface
+    public interface Search {
+
+        /**
+         * runs the search.
+         *
+         * @param sink where to hand each result. it already applies the
+         * limit.
+         * @throws IOException if the search failed.
+         */
+        void run(BiConsumer<Path, BasicFileAttributes> sink) throws IOException;
+    }
+
+    /**
+     * follows the folders walked by
+     * {@link #ExecuteRuleWithAttributes(Path, boolean, BiConsumer, FolderListener)}
+     * it is called from the threads that walk the tree. so it can be called
+     * concurrently when the execution mode is not sequential. (unlike the
+     * sink)
+     */
+    public interface FolderListener {
+
+        /**
+         * a folder is about to be listed. a folder is always walked after
+         * its parent.
+         *
+         * @param directory the folder
+         * @param depth the depth of the folder. the base folder is 0
+         */
+        void walking(Path directory, int depth);
+
+        /**
+         * a subfolder could not be listed and was skipped. this only
+         * happens when the IOExceptions are ignored. otherwise the search
+         * fails.
+         *
+         * @param directory the folder
+         * @param depth the depth of the folder.
+         * @param ex the reason it could not be listed.
+         */
+        default void unreadable(Path directory, int depth, IOException ex) {
+        }
+    }
+
+    /**
+     * checks whenever the running search must stop (it was cancelled, the
+     * limit was reached or it timed out)
+     *
+     * @return true if the search must stop.
+     */
+    public boolean isStopping() {
+        return shouldStop();
+    }
+
+    /**
+     * starts a search. resets the outcome and the deadline and the statistics
+     *
+     * @return the sink guarded by the limit.
+     */
+    private BiConsumer<Path, BasicFileAttributes> begin(
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        Objects.requireNonNull(sink, "the sink cannot be null");
+        outcome = cancelled ? SearchOutcome.CANCELLED : SearchOutcome.COMPLETED;
+        stopRequested = cancelled;
+        if (timeout != null) {
+            deadline = System.nanoTime() + timeout.toNanos();
+        }
+        var guarded = guardedSink(sink);
+        //compiled with what the previous searches learnt about the rules.
+        recompile();
+        var stats = statistics;
+        if (stats != null) {
+            if (accumulate && started) {
+                stats.resumed();
+            } else {
+                stats.reset();
+            }
+        }
+        started = true;
+        return guarded;
+    }
+
+    /**
+     * makes each search add up to the previous ones. the statistics are not
+     * reset and the folders walked following links are remembered. so several
+     * folders searched one after the other count as a single search. (see
+     * {@link MultiRootSearch})
+     *
+     * @param add true to add up the searches.
+     */
+    void setAccumulate(boolean add) {
+        accumulate = add;
+    }
+
+    private int getParallelism() {
+        return parallelism > 0 ? parallelism : executionMode.getDefaultParallelism();
+    }
+
+    /**
+     * wraps the sink so it is never called concurrently and never receives
+     * more results than the limit. the search is stopped once the limit is
+     * reached.
+     */
+    private BiConsumer<Path, BasicFileAttributes> guardedSink(
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) {
+        var lock = new Object();
+        var emitted = new long[1];
+        return (path, attributes) -> {
+            synchronized (lock) {
+                if (emitted[0] >= limit) {
+                    return;
+                }
+                sink.accept(path, attributes);
+                if (++emitted[0] >= limit) {
+                    stop(SearchOutcome.LIMIT_REACHED);
+                }
+            }
+        };
+    }
+
+    /**
+     * reads the basic attributes of a listed entry (without following links)
+     * this is the only metadata read done per entry. the rules and the output
+     * reuse it.
+     *
+     * @return the attributes or null if they could not be read. in that case
+     * the rules fall back to read the metadata by themselves.
+     */
+    private BasicFileAttributes readAttributes(Path path, DirectoryTrace trace) {
+        var stats = statistics;
+        if (stats != null) {
+            stats.entryVisited();
+            stats.attributesRead();
+        }
+        if (trace != null) {
+            trace.mark();
+        }
+        try {
+            if (followLinks) {
+                return readFollowingLinks(path);
+            }
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException ex) {
+            //not ignored yet. the rules read it again and fail (or ignore it) by themselves.
+            if (stats != null) {
+                stats.attributesReadFailed();
+            }
+            return null;
+        } finally {
+            if (trace != null) {
+                trace.attributesRead();
+            }
+        }
+    }
+
+    /**
+     * reads the attributes of the target of a link. or of the link itself if
+     * it is broken.
+     */
+    private static BasicFileAttributes readFollowingLinks(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException ex) {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+    }
+
+    /**
+     * matches the entries of a archive. a archive that cannot be read (or is
+     * not really a archive) is skipped.
+     */
+    private void searchArchive(Path archive, int depth, BiConsumer<Path, BasicFileAttributes> sink) {
+        try {
+            archives.search(archive, depth, sink, this::shouldStop);
+        } catch (IOException ex) {
+            var stats = statistics;
+            if (stats != null) {
+                stats.ioExceptionIgnored();
+            }
+            LOGGER.log(Level.FINE, "cannot look inside {0}: {1}", new Object[]{archive, ex.getMessage()});
+        }
+    }
+
+    /**
+     * checks that a folder about to be walked was not walked before. (only
+     * when following links) a folder that cannot be identified is not walked.
+     * as it might be a cycle.
+     */
+    private boolean firstVisit(Path directory, BasicFileAttributes attributes) {
+        var walked = visited;
+        if (walked == null) {
+            return true;
+        }
+        try {
+            return walked.add(directory, attributes);
+        } catch (IOException ex) {
+            var stats = statistics;
+            if (stats != null) {
+                stats.ioExceptionIgnored();
+            }
+            LOGGER.log(Level.FINE, "cannot identify " + directory + " it is not walked", ex);
+            return false;
+        }
+    }
+
+    /**
+     * the next entry of the folder or null if there are no more.
+     */
+    private static Path nextEntry(Iterator<Path> iterator, DirectoryTrace trace) {
+        if (trace == null) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+        trace.mark();
+        var next = iterator.hasNext() ? iterator.next() : null;
+        trace.listed();
+        return next;
+    }
+
+    /**
+     * hands a result to the sink.
+     */
+    private static void output(BiConsumer<Path, BasicFileAttributes> sink, Path path,
+            BasicFileAttributes attributes, DirectoryTrace trace) {
+        if (trace == null) {
+            sink.accept(path, attributes);
+            return;
+        }
+        trace.mark();
+        sink.accept(path, attributes);
+        trace.resultOutput();
+    }
+
+    /**
+     * lists a folder. counting it if the statistics are collected. a
+     * subfolder that cannot be listed is skipped when the IOExceptions are
+     * ignored.
+     *
+     * @return the entries of the folder or null if it was skipped.
+     */
+    private Stream<Path> list(Path directory, int depth) throws IOException {
+        var stats = statistics;
+        if (stats != null) {
+            stats.directoryListed();
+        }
+        try {
+            return Files.list(directory);
+        } catch (IOException ex) {
+            //the base folder must be readable. as it is all the search.
+            if (depth == 0 || !ignoreIOexeption) {
+                throw ex;
+            }
+            if (stats != null) {
+                stats.ioExceptionIgnored();
+            }
+            LOGGER.log(Level.FINE, "cannot list {0}: {1}", new Object[]{directory, ex.getMessage()});
+            var listener = folders;
+            if (listener != null) {
+                listener.unreadable(directory, depth, ex);
+            }
+            return null;
+        }
+    }
+
+    private static boolean isDirectory(BasicFileAttributes attributes) {
+        return attributes != null && attributes.isDirectory();
+    }
+
+    /**
+     * checks if the entry is a folder and all the rules agree to descend into
+     * it. if any rule prunes it the folder is never listed.
+     *
+     * @param directory the entry to check
+     * @param attributes the attributes of the entry
+     * @param depth the depth of the entry (the entries of the base folder are
+     * 1)
+     * @return true if the folder should be listed.
+     */
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        if (!isDirectory(attributes)) {
+            return false;
+        }
+        for (var rule : rules) {
+            if (!rule.ShouldDescend(directory, attributes, depth)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * what to do with each subfolder found while listing a folder. each
+     * execution mode decides how (and when) it is walked.
+     */
+    @FunctionalInterface
+    private interface SubfolderScheduler {
+
+        void schedule(Path subfolder) throws IOException;
+    }
+
+    /**
+     * lists a single folder. each entry is matched (and looked into if it is
+     * a archive) and the subfolders to walk are handed to the scheduler. this
+     * is the only loop over the entries. the execution modes only decide how
+     * the subfolders are walked.
+     *
+     * @param depth the depth of the folder. the base folder is 0 and its
+     * entries are 1
+     */
+    private void walkFolder(Path directory, int depth, boolean recursive,
+            BiConsumer<Path, BasicFileAttributes> sink, SubfolderScheduler subfolders) throws IOException {
+        var listener = folders;
+        if (listener != null) {
+            listener.walking(directory, depth);
+        }
         //given that we might or not require to play with folders we list instead of walk the path
-        try (var FileList = Files.list(ParentPath)) {
+        var trace = DirectoryTrace.begin(directory, depth, rules.size());
+        try (var FileList = list(directory, depth)) {
+            if (FileList == null) {
+                return;
+            }
             var iterator = FileList.iterator();
-            while (iterator.hasNext()) {
-                var nextfile = iterator.next();
-                if (MatchRule(nextfile)) {
-                    results.add(nextfile);
+            if (trace != null) {
+                trace.listed();
+            }
+            Path nextfile;
+            while (!shouldStop() && (nextfile = nextEntry(iterator, trace)) != null) {
+                var attributes = readAttributes(nextfile, trace);
+                if (MatchRule(nextfile, attributes, depth + 1, trace)) {
+                    output(sink, nextfile, attributes, trace);
+                }
+                if (archives != null && ArchiveSearch.isArchive(nextfile, attributes)) {
+                    searchArchive(nextfile, depth + 1, sink);
                 }
-                if (recursive && Files.isDirectory(nextfile, LinkOption.NOFOLLOW_LINKS)) {
-                    results.addAll(ExecuteRule(nextfile, recursive));
+                if (recursive && ShouldDescend(nextfile, attributes, depth + 1)
+                        && firstVisit(nextfile, attributes)) {
+                    if (trace != null) {
+                        trace.subdirectory();
+                    }
+                    subfolders.schedule(nextfile);
                 }
             }
-        }//auto close the resource 
-        return results;
+        } finally {
+            //auto close the resource 
+            if (trace != null) {
+                trace.commit(rules);
+            }
+        }
+    }
+
+    /**
+     * walks each subfolder as soon as it is found. on the calling thread.
+     *
+     * @param depth the depth of the folder. the base folder is 0 and its
+     * entries are 1
+     */
+    private void ExecuteSequential(Path ParentPath, int depth, boolean recursive,
+            BiConsumer<Path, BasicFileAttributes> sink) throws IOException {
+        //assume at this point caller alredy check existance, folder and readability.
+        walkFolder(ParentPath, depth, recursive, sink,
+                subfolder -> ExecuteSequential(subfolder, depth + 1, recursive, sink));
+    }
+
+    /**
+     * walks the tree on a dedicated Fork Join pool. each folder is a task
+     * that is forked so idle workers can steal it.
+     */
+    private void ExecuteParallel(Path ParentPath, boolean recursive, BiConsumer<Path, BasicFileAttributes> sink) throws IOException {
+        var pool = new ForkJoinPool(getParallelism());
+        try {
+            pool.invoke(new DirectoryTask(ParentPath, 0, recursive, sink));
+        } catch (UncheckedIOException ex) {
+            //the tasks cannot throw checked exceptions. unwrap it back.
+            throw ex.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * walks the tree using a virtual thread per folder. the amount of folders
+     * being listed at once is bounded by the parallelism so we do not exhaust
+     * the file descriptors.
+     */
+    private void ExecuteVirtual(Path ParentPath, boolean recursive, BiConsumer<Path, BasicFileAttributes> sink) throws IOException {
+        var permits = new Semaphore(getParallelism());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ListVirtual(ParentPath, 0, recursive, sink, executor, permits);
+        }
+    }
+
+    /**
+     * list a single folder (holding a permit) and submit its subfolders to the
+     * executor. the permit is released before waiting for the subfolders so a
+     * parent never blocks its children.
+     */
+    private Void ListVirtual(Path Directory, int depth, boolean recursive, BiConsumer<Path, BasicFileAttributes> sink,
+            ExecutorService executor, Semaphore permits) throws IOException {
+        LinkedList<Future<Void>> children = new LinkedList<>();
+        if (shouldStop()) {
+            return null;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to list " + Directory);
+        }
+        if (shouldStop()) {
+            //it might have stopped while waiting for the permit.
+            permits.release();
+            return null;
+        }
+        try {
+            walkFolder(Directory, depth, recursive, sink, subfolder -> children.add(executor.submit(
+                    () -> ListVirtual(subfolder, depth + 1, recursive, sink, executor, permits))));
+        } finally {
+            permits.release();
+        }
+        for (var child : children) {
+            joinVirtual(child);
+        }
+        return null;
+    }
+
+    private static void joinVirtual(Future<Void> child) throws IOException {
+        try {
+            child.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a subfolder");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(ex.getCause());
+        }
     }
 
     /**
@@ -80,22 +918,145 @@ public class RuleExecutor {
      * ignoreIOexeption is set to false
      */
     public boolean MatchRule(Path pathToFile) throws IOException {
+        return MatchRule(pathToFile, null);
+    }
+
+    /**
+     * same as {@link #MatchRule(Path)} but the rules reuse the provided
+     * attributes instead of reading the file metadata again. the file is
+     * assumed to be a entry of the base folder (depth 1)
+     *
+     * @param pathToFile the file to analyze.
+     * @param attributes the attributes of the file. or null if not available
+     * @return true if matches the rule(s) false otherwise.
+     * @throws IOException if fails to read the file or its metadata and
+     * ignoreIOexeption is set to false
+     */
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        return MatchRule(pathToFile, attributes, 1);
+    }
+
+    /**
+     * same as {@link #MatchRule(Path, BasicFileAttributes)} for a entry at the
+     * provided depth from the base folder.
+     *
+     * @param pathToFile the file to analyze.
+     * @param attributes the attributes of the file. or null if not available
+     * @param depth the depth of the file (the entries of the base folder are
+     * 1)
+     * @return true if matches the rule(s) false otherwise.
+     * @throws IOException if fails to read the file or its metadata and
+     * ignoreIOexeption is set to false
+     */
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        return MatchRule(pathToFile, attributes, depth, null);
+    }
+
+    /**
+     * the rules are also timed on the trace (if any) of the folder being
+     * walked.
+     */
+    private boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth,
+            DirectoryTrace trace) throws IOException {
+        var fused = compiled;
+        if (fused != null && trace == null && statistics == null) {
+            return fused.MatchRule(pathToFile, attributes, depth);
+        }
         //this is the definition on a lambda of the function MatchRule. 
         //on this case MatchRule looks and check that the pathToFile matches all the rules.
-        for (Rule rule : rules) {
-            try {
-                if (!rule.MatchRule(pathToFile)) {
-                    return false;
-                }
-            } catch (IOException ex) {
-                if (ignoreIOexeption) {
-                    return false;
-                } else {
-                    throw ex;
+        //the rules are evaluated on the order that is estimated to reject the path sooner.
+        var order = ruleOrder;
+        var sampled = order.sample();
+        var stats = statistics;
+        var timed = stats != null || trace != null;
+        try {
+            for (int index : order.order()) {
+                var rule = order.rule(index);
+                long start = timed ? System.nanoTime() : 0;
+                try {
+                    var matches = rule.MatchRule(pathToFile, attributes, depth);
+                    if (sampled) {
+                        order.record(index, !matches);
+                    }
+                    if (timed) {
+                        evaluated(stats, trace, index, !matches, System.nanoTime() - start);
+                    }
+                    if (!matches) {
+                        return false;
+                    }
+                } catch (IOException ex) {
+                    if (sampled) {
+                        order.record(index, true);
+                    }
+                    if (timed) {
+                        evaluated(stats, trace, index, true, System.nanoTime() - start);
+                    }
+                    if (ignoreIOexeption) {
+                        if (stats != null) {
+                            stats.ioExceptionIgnored();
+                        }
+                        return false;
+                    } else {
+                        throw ex;
+                    }
                 }
             }
+            return true;
+        } finally {
+            if (sampled) {
+                order.entryDone();
+            }
         }
-        return true;
     }
 
+    private static void evaluated(SearchStatistics stats, DirectoryTrace trace, int index,
+            boolean rejected, long nanos) {
+        if (stats != null) {
+            stats.ruleEvaluated(index, rejected, nanos);
+        }
+        if (trace != null) {
+            trace.ruleEvaluated(index, rejected, nanos);
+        }
+    }
+
+    /**
+     * a Fork Join task that process a single folder. subfolders are forked as
+     * new tasks as soon as they are found.
+     */
+    @SuppressWarnings("serial") //never serialized. it only lives on the pool.
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path Directory;
+        private final int depth;
+        private final boolean recursive;
+        private final BiConsumer<Path, BasicFileAttributes> sink;
+
+        private DirectoryTask(Path directory, int depth, boolean recursive,
+                BiConsumer<Path, BasicFileAttributes> sink) {
+            Directory = directory;
+            this.depth = depth;
+            this.recursive = recursive;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (shouldStop()) {
+                return;
+            }
+            LinkedList<DirectoryTask> children = new LinkedList<>();
+            try {
+                walkFolder(Directory, depth, recursive, sink, subfolder -> {
+                    var child = new DirectoryTask(subfolder, depth + 1, recursive, sink);
+                    child.fork();
+                    children.add(child);
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            for (var child : children) {
+                child.join();
+            }
+        }
+    }
 }
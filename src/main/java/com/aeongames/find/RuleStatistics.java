@@ -0,0 +1,71 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * a snapshot of how a single rule performed on a search.
+ *
+ * @author Eduardo
+ */
+public final class RuleStatistics {
+
+    private final String Rule;
+    private final long Evaluations;
+    private final long Rejections;
+    private final long Nanos;
+
+    @ConstructorParameters({"rule", "evaluations", "rejections", "nanos"})
+    public RuleStatistics(String rule, long evaluations, long rejections, long nanos) {
+        Rule = rule;
+        Evaluations = evaluations;
+        Rejections = rejections;
+        Nanos = nanos;
+    }
+
+    /**
+     * @return the name of the rule.
+     */
+    public String getRule() {
+        return Rule;
+    }
+
+    /**
+     * @return how many entries the rule evaluated.
+     */
+    public long getEvaluations() {
+        return Evaluations;
+    }
+
+    /**
+     * @return how many entries the rule rejected (including the ones it failed
+     * to evaluate)
+     */
+    public long getRejections() {
+        return Rejections;
+    }
+
+    /**
+     * @return the time spent on the rule in nanoseconds.
+     */
+    public long getNanos() {
+        return Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s evaluated %d rejected %d time %.3f ms (%d ns per entry)",
+                Rule, Evaluations, Rejections, Nanos / 1e6, Evaluations == 0 ? 0 : Nanos / Evaluations);
+    }
+}
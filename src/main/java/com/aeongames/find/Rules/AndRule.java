@@ -0,0 +1,79 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * matches when all the combined rules match. it stops on the first rule that
+ * does not match.
+ *
+ * @author Eduardo
+ */
+public class AndRule extends CompositeRule {
+
+    public static final String COMMAND = "-and";
+
+    /**
+     * creates a AndRule.
+     *
+     * @param rules the rules that must match. (at least one)
+     */
+    public AndRule(List<? extends Rule> rules) {
+        super("All of", rules);
+    }
+
+    /**
+     * creates a AndRule.
+     *
+     * @param rules the rules that must match. (at least one)
+     */
+    public AndRule(Rule... rules) {
+        this(List.of(rules));
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        for (var rule : Children) {
+            if (!rule.MatchRule(pathToFile, attributes, depth)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * nothing under a folder that any rule prunes can match all the rules. so
+     * it is skipped if any of them prunes it.
+     */
+    @Override
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        for (var rule : Children) {
+            if (!rule.ShouldDescend(directory, attributes, depth)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getRuleName() {
+        return joinNames("AND");
+    }
+}
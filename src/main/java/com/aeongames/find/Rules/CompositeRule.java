@@ -0,0 +1,125 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * the base of the rules that combine other rules. the children are kept on a
+ * array sorted by cost (cheap first, on a stable sort so the same cost keeps
+ * the provided order) so the short circuit skips the expensive ones whenever
+ * possible. nested combinators of the same kind are flattened. so
+ * (a AND (b AND c)) is evaluated as a single (a AND b AND c)
+ *
+ * @author Eduardo
+ */
+abstract class CompositeRule extends Rule {
+
+    protected final Rule[] Children;
+
+    protected CompositeRule(String name, List<? extends Rule> children) {
+        super(name);
+        if (children.isEmpty()) {
+            throw new IllegalArgumentException("at least one rule is required");
+        }
+        var flat = new ArrayList<Rule>();
+        for (var child : children) {
+            if (child.getClass() == getClass()) {
+                flat.addAll(Arrays.asList(((CompositeRule) child).Children));
+            } else {
+                flat.add(child);
+            }
+        }
+        flat.sort(Comparator.comparingInt(rule -> rule.getCost().getWeight()));
+        Children = flat.toArray(Rule[]::new);
+    }
+
+    /**
+     * the combined rules. on the order they are evaluated.
+     *
+     * @return the combined rules.
+     */
+    public List<Rule> getRules() {
+        return List.of(Children);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile) throws IOException {
+        return MatchRule(pathToFile, null, 1);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        return MatchRule(pathToFile, attributes, 1);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public abstract boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException;
+
+    /**
+     * the most expensive of the combined rules. as it might need to run.
+     */
+    @Override
+    public RuleCost getCost() {
+        return Children[Children.length - 1].getCost();
+    }
+
+    /**
+     * the names of the children joined by the operator and surrounded by
+     * parenthesis.
+     */
+    protected String joinNames(String operator) {
+        var build = new StringBuilder("(");
+        for (int i = 0; i < Children.length; i++) {
+            if (i > 0) {
+                build.append(' ').append(operator).append(' ');
+            }
+            build.append(Children[i].getRuleName());
+        }
+        return build.append(')').toString();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (otherobj == null || otherobj.getClass() != getClass()) {
+            return false;
+        }
+        return Arrays.equals(Children, ((CompositeRule) otherobj).Children);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(Children) + getBaseRuleName().hashCode();
+    }
+}
@@ -0,0 +1,149 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * skips the folders with the provided names (like node_modules or .git). the
+ * folders are not listed at all so nothing under them is visited. and the
+ * folders themselves are not matched either.
+ *
+ * @author Eduardo
+ */
+public class ExcludeDirectory extends Rule {
+
+    public static final String COMMAND = "-exclude";
+
+    /**
+     * gets a instance of the ExcludeDirectory rule depending on the Command
+     * Line parameters. all the instances of the flag are used and each one
+     * can have a comma separated list of folder names (-exclude .git,target)
+     *
+     * @param CMDLine an array of command line parameters
+     * @return null if the parameters are invalid. otherwise return a Rule to
+     * skip the folders.
+     */
+    public static final ExcludeDirectory Parse(String[] CMDLine) {
+        var names = new LinkedHashSet<String>();
+        for (int i = 0; i < CMDLine.length; i++) {
+            if (Objects.equals(CMDLine[i].strip(), COMMAND)
+                    && i + 1 < CMDLine.length) {
+                var invalid = CMDLine[i + 1].strip().startsWith("-");
+                if (invalid) {
+                    continue;
+                }
+                for (var name : CMDLine[i + 1].split(",")) {
+                    if (!name.isBlank()) {
+                        names.add(name.strip());
+                    }
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        return new ExcludeDirectory(names);
+    }
+
+    private final Set<String> Names;
+
+    /**
+     * creates a ExcludeDirectory.
+     *
+     * @param names the names of the folders to skip.
+     */
+    public ExcludeDirectory(Collection<String> names) {
+        super("Skips the folders named");
+        Names = Set.copyOf(names);
+    }
+
+    private boolean isExcluded(Path path) {
+        var name = path.getFileName();
+        return name != null && Names.contains(name.toString());
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile) {
+        //only folders are excluded. a file with the same name is fine.
+        return !isExcluded(pathToFile) || !Files.isDirectory(pathToFile);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) {
+        if (attributes == null) {
+            return MatchRule(pathToFile);
+        }
+        return !attributes.isDirectory() || !isExcluded(pathToFile);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        return !isExcluded(directory);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public RuleCost getCost() {
+        return RuleCost.CHEAP;
+    }
+
+    @Override
+    public String getRuleName() {
+        return String.format("%s %s", getBaseRuleName(), String.join(", ", Names));
+    }
+
+    /**
+     * checks if there is another instance of this class with the same rules.
+     *
+     * @param otherobj the other object to check. can be null (but will return
+     * false)
+     * @return whenever or not this and the otherobj matches and represent the
+     * same rule (NOT the same reference)
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (Objects.isNull(otherobj)) {
+            return false;
+        }
+        if (otherobj instanceof ExcludeDirectory other) {
+            return Objects.equals(Names, other.Names);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Names, getBaseRuleName());
+    }
+}
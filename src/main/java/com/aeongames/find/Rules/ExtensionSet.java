@@ -0,0 +1,101 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.util.Collection;
+
+/**
+ * a small open addressing hash set of extensions. it can look up a region of
+ * a file name (from a index to its end) without creating a substring. so
+ * matching a file against many extensions does not allocate.
+ *
+ * @author Eduardo
+ */
+final class ExtensionSet {
+
+    private final String[] Table;
+    private final int Mask;
+    private final boolean IgnoreCase;
+    private final int MinLength;
+    private final int MaxLength;
+
+    /**
+     * creates the set.
+     *
+     * @param extensions the extensions to hold.
+     * @param ignoreCase whenever the look up ignores the case.
+     */
+    ExtensionSet(Collection<String> extensions, boolean ignoreCase) {
+        IgnoreCase = ignoreCase;
+        //keep the table at most half full so the probes stay short.
+        var capacity = Integer.highestOneBit(Math.max(extensions.size(), 1) * 2) << 1;
+        Table = new String[capacity];
+        Mask = capacity - 1;
+        int min = Integer.MAX_VALUE, max = 0;
+        for (var extension : extensions) {
+            if (lookup(extension, 0, extension.length())) {
+                continue;
+            }
+            var slot = hash(extension, 0) & Mask;
+            while (Table[slot] != null) {
+                slot = (slot + 1) & Mask;
+            }
+            Table[slot] = extension;
+            min = Math.min(min, extension.length());
+            max = Math.max(max, extension.length());
+        }
+        MinLength = min;
+        MaxLength = max;
+    }
+
+    /**
+     * checks if the text from the provided index to its end is on this set.
+     *
+     * @param text the text to check (usually a file name)
+     * @param from the index where the region to check starts
+     * @return true if the region is on this set.
+     */
+    boolean contains(String text, int from) {
+        var length = text.length() - from;
+        if (length < MinLength || length > MaxLength) {
+            return false;
+        }
+        return lookup(text, from, length);
+    }
+
+    private boolean lookup(String text, int from, int length) {
+        var slot = hash(text, from) & Mask;
+        String candidate;
+        while ((candidate = Table[slot]) != null) {
+            if (candidate.length() == length
+                    && candidate.regionMatches(IgnoreCase, 0, text, from, length)) {
+                return true;
+            }
+            slot = (slot + 1) & Mask;
+        }
+        return false;
+    }
+
+    private int hash(String text, int from) {
+        int hash = 0;
+        for (int i = from; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (IgnoreCase) {
+                //same folding String.regionMatches uses when ignoring case
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,330 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+/**
+ * matches the files that contains a text. this is the only rule that reads
+ * the files. so its cost is {@link RuleCost#CONTENT} and it is evaluated after
+ * the metadata rules (only the files that survive them are read)
+ * <p>
+ * small files are read whole into a reused direct buffer. bigger files are
+ * memory mapped (on windows of 1GB). the text is searched as its UTF-8 bytes
+ * with Boyer-Moore-Horspool. or with a regular expression that is matched on
+ * the raw bytes (each byte is seen as a ISO-8859-1 char and the non ASCII
+ * characters of the expression are turned into their UTF-8 bytes. so literal
+ * non ASCII text matches but a character class does not see them as a
+ * single character)
+ *
+ * @author Eduardo
+ */
+public class FindContent extends Rule {
+
+    public static final String COMMAND = "-contains";
+
+    /**
+     * gets a instance of the FindContent rule depending on the Command Line
+     * parameters. (-contains text [RE])
+     *
+     * @param CMDLine an array of command line parameters
+     * @return null if the parameters are invalid. otherwise return a Rule to
+     * seek the files that contains the text or the regular expression.
+     */
+    public static final FindContent Parse(String[] CMDLine) {
+        for (int i = 0; i < CMDLine.length; i++) {
+            if (Objects.equals(CMDLine[i].strip(), COMMAND)
+                    && i + 1 < CMDLine.length) {
+                var invalid = CMDLine[i + 1].strip().startsWith("-");
+                if (invalid) {
+                    return null;
+                }
+                var regex = i + 2 < CMDLine.length && CMDLine[i + 2].strip().equalsIgnoreCase("RE");
+                return new FindContent(CMDLine[i + 1], regex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * files up to this size are read into a pooled buffer instead of being
+     * mapped. mapping has a fixed cost (and a mapping lives until it is
+     * collected) that is not worth it for small files.
+     */
+    private static final int SMALL_FILE = 256 * 1024;
+    /**
+     * the size of each mapped window of a big file.
+     */
+    private static final long MAP_WINDOW = 1L << 30;
+    /**
+     * how much consecutive windows overlap when using a regular expression.
+     * (a match longer than this across two windows is not found)
+     */
+    private static final int REGEX_OVERLAP = 64 * 1024;
+    /**
+     * the direct buffers to read the small files. pooled instead of thread
+     * local as virtual threads are not reused.
+     */
+    private static final ConcurrentLinkedQueue<ByteBuffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    private final String Text;
+    private final boolean Regex;
+    /**
+     * the text as UTF-8 bytes. null on regular expression mode
+     */
+    private final byte[] Needle;
+    /**
+     * the Horspool shift of each byte value. null on regular expression mode
+     */
+    private final int[] Shift;
+    /**
+     * the regular expression over the bytes. null on literal mode
+     */
+    private final Pattern BytePattern;
+
+    /**
+     * creates a FindContent that seeks the text literally.
+     *
+     * @param text the text to seek.
+     */
+    public FindContent(String text) {
+        this(text, false);
+    }
+
+    /**
+     * creates a FindContent.
+     *
+     * @param text the text (or regular expression) to seek.
+     * @param regex whenever the text is a regular expression.
+     * @throws java.util.regex.PatternSyntaxException if the text is not a
+     * valid regular expression
+     */
+    public FindContent(String text, boolean regex) {
+        super("Searches files containing");
+        Text = Objects.requireNonNull(text, "the text cannot be null");
+        Regex = regex;
+        if (Regex) {
+            Needle = null;
+            Shift = null;
+            //the UTF-8 bytes of the expression seen as ISO-8859-1. the same view the content has.
+            BytePattern = Pattern.compile(new String(Text.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1));
+        } else {
+            Needle = Text.getBytes(StandardCharsets.UTF_8);
+            Shift = shiftTable(Needle);
+            BytePattern = null;
+        }
+    }
+
+    private static int[] shiftTable(byte[] needle) {
+        var shift = new int[256];
+        Arrays.fill(shift, Math.max(needle.length, 1));
+        for (int i = 0; i < needle.length - 1; i++) {
+            shift[needle[i] & 0xFF] = needle.length - 1 - i;
+        }
+        return shift;
+    }
+
+    @Override
+    public boolean MatchRule(Path pathToFile) throws IOException {
+        if (!Files.isRegularFile(pathToFile)) {
+            return false;
+        }
+        return contains(pathToFile, Files.size(pathToFile));
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        if (attributes == null || attributes.isSymbolicLink()) {
+            //links are resolved by the path based check. as it follows them
+            return MatchRule(pathToFile);
+        }
+        if (!attributes.isRegularFile()) {
+            return false;
+        }
+        return contains(pathToFile, attributes.size());
+    }
+
+    private boolean contains(Path file, long size) throws IOException {
+        if (!Regex && Needle.length == 0) {
+            return true;
+        }
+        if (!Regex && size < Needle.length) {
+            return false;
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (size <= SMALL_FILE) {
+                return containsSmall(channel);
+            }
+            return containsMapped(channel, size);
+        }
+    }
+
+    private boolean containsSmall(FileChannel channel) throws IOException {
+        var buffer = BUFFERS.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(SMALL_FILE);
+        }
+        try {
+            buffer.clear();
+            //the file might have grown since the size was read. only the first part is checked.
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            }
+            return find(buffer, 0, buffer.position());
+        } finally {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    private boolean containsMapped(FileChannel channel, long size) throws IOException {
+        var overlap = Regex ? REGEX_OVERLAP : Needle.length - 1;
+        for (long start = 0; start < size; start += MAP_WINDOW - overlap) {
+            var length = (int) Math.min(MAP_WINDOW, size - start);
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            if (find(mapped, 0, length)) {
+                return true;
+            }
+            if (start + length >= size) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * seeks the text on the buffer between from (inclusive) and to
+     * (exclusive) the buffer position and limit are ignored.
+     */
+    private boolean find(ByteBuffer buffer, int from, int to) {
+        if (Regex) {
+            return BytePattern.matcher(new ByteSequence(buffer, from, to)).find();
+        }
+        return indexOf(buffer, from, to, Needle, Shift) >= 0;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search.
+     *
+     * @return the index of the first occurrence or -1 if not found.
+     */
+    static int indexOf(ByteBuffer buffer, int from, int to, byte[] needle, int[] shift) {
+        var last = needle.length - 1;
+        var position = from;
+        while (position + last < to) {
+            var tail = buffer.get(position + last);
+            if (tail == needle[last]) {
+                var i = last - 1;
+                while (i >= 0 && buffer.get(position + i) == needle[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return position;
+                }
+            }
+            position += shift[tail & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public RuleCost getCost() {
+        return RuleCost.CONTENT;
+    }
+
+    /**
+     * checks if there is another instance of this class with the same rules.
+     *
+     * @param otherobj the other object to check. can be null (but will return
+     * false)
+     * @return whenever or not this and the otherobj matches and represent the
+     * same rule (NOT the same reference)
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (Objects.isNull(otherobj)) {
+            return false;
+        }
+        if (otherobj instanceof FindContent other) {
+            return Regex == other.Regex && Text.equals(other.Text);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Text, Regex, getBaseRuleName());
+    }
+
+    @Override
+    public String getRuleName() {
+        return getBaseRuleName() + (Regex ? " the Regular Expresion " : " ") + Text;
+    }
+
+    /**
+     * a view of the bytes of a buffer as ISO-8859-1 characters. so a regular
+     * expression can run on the content without decoding it.
+     */
+    private static final class ByteSequence implements CharSequence {
+
+        private final ByteBuffer Buffer;
+        private final int Start;
+        private final int End;
+
+        private ByteSequence(ByteBuffer buffer, int start, int end) {
+            Buffer = buffer;
+            Start = start;
+            End = end;
+        }
+
+        @Override
+        public int length() {
+            return End - Start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (Buffer.get(Start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteSequence(Buffer, Start + start, Start + end);
+        }
+
+        @Override
+        public String toString() {
+            var bytes = new byte[length()];
+            Buffer.get(Start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * limits how deep the search goes. the entries of the base folder are on
+ * depth 1. folders deeper than the maximal depth are never listed and entries
+ * above the minimal depth are not matched (but still walked).
+ *
+ * @author Eduardo
+ */
+public class FindDepth extends Rule {
+
+    public static final String MIN_COMMAND = "-mindepth";
+    public static final String MAX_COMMAND = "-maxdepth";
+
+    /**
+     * gets a instance of the FindDepth rule depending on the Command Line
+     * parameters
+     *
+     * @param CMDLine an array of command line parameters
+     * @return null if neither of the flags is present or valid. otherwise a
+     * Rule with the requested limits.
+     */
+    public static final FindDepth Parse(String[] CMDLine) {
+        var min = parseDepth(CMDLine, MIN_COMMAND, 0);
+        var max = parseDepth(CMDLine, MAX_COMMAND, Integer.MAX_VALUE);
+        if (min == 0 && max == Integer.MAX_VALUE) {
+            return null;
+        }
+        return new FindDepth(min, max);
+    }
+
+    private static int parseDepth(String[] CMDLine, String flag, int defaultValue) {
+        for (int i = 0; i < CMDLine.length; i++) {
+            if (Objects.equals(CMDLine[i].strip(), flag)
+                    && i + 1 < CMDLine.length) {
+                try {
+                    var value = Integer.parseInt(CMDLine[i + 1].strip());
+                    return value >= 0 ? value : defaultValue;
+                } catch (NumberFormatException ex) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private final int MinDepth;
+    private final int MaxDepth;
+
+    /**
+     * creates a FindDepth.
+     *
+     * @param minDepth the minimal depth of a entry to be matched. 0 or 1 to
+     * match from the entries of the base folder
+     * @param maxDepth the maximal depth to list. 1 only list the base folder.
+     */
+    public FindDepth(int minDepth, int maxDepth) {
+        super("Limits the depth of the search");
+        if (minDepth < 0 || maxDepth < 0) {
+            throw new IllegalArgumentException("the depth cannot be negative");
+        }
+        MinDepth = minDepth;
+        MaxDepth = maxDepth;
+    }
+
+    /**
+     * without the depth we assume it is a entry of the base folder.
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile) {
+        return 1 >= MinDepth && 1 <= MaxDepth;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) {
+        return depth >= MinDepth && depth <= MaxDepth;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        //the entries of this folder are one level deeper.
+        return depth < MaxDepth;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public RuleCost getCost() {
+        return RuleCost.CHEAP;
+    }
+
+    @Override
+    public String getRuleName() {
+        var build = new StringBuilder(getBaseRuleName());
+        build.append(" from depth ").append(MinDepth);
+        if (MaxDepth != Integer.MAX_VALUE) {
+            build.append(" to ").append(MaxDepth);
+        }
+        return build.toString();
+    }
+
+    /**
+     * checks if there is another instance of this class with the same rules.
+     *
+     * @param otherobj the other object to check. can be null (but will return
+     * false)
+     * @return whenever or not this and the otherobj matches and represent the
+     * same rule (NOT the same reference)
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (Objects.isNull(otherobj)) {
+            return false;
+        }
+        if (otherobj instanceof FindDepth other) {
+            return MinDepth == other.MinDepth && MaxDepth == other.MaxDepth;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(MinDepth, MaxDepth, getBaseRuleName());
+    }
+}
@@ -14,6 +14,7 @@ package com.aeongames.find.Rules;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
 
 /**
@@ -77,6 +78,18 @@ public class FindDirectory extends Rule {
         return SeekDirectory == Files.isDirectory(pathToFile);
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) {
+        if (attributes == null || attributes.isSymbolicLink()) {
+            //links are resolved by the path based check. as it follows them
+            return MatchRule(pathToFile);
+        }
+        return SeekDirectory == attributes.isDirectory();
+    }
+
     /**
      * {@inheritDoc }
      */
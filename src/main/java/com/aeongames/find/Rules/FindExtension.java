@@ -14,7 +14,12 @@
 package com.aeongames.find.Rules;
 
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  *
@@ -22,37 +27,87 @@ import java.util.Objects;
  */
 public class FindExtension extends Rule {
     public static final String COMMAND = "-ext";
+    /**
+     * same as {@link #COMMAND} but the extensions are matched ignoring case.
+     */
+    public static final String IGNORE_CASE_COMMAND = "-iext";
+
     /**
      * gets a instance of the FindExtension rule depending on the Command
-     * Line parameters 
+     * Line parameters. all the instances of the flag are used and each one
+     * can have a comma separated list of extensions (-ext jpg,png -ext gif)
+     * if any extension is provided with {@link #IGNORE_CASE_COMMAND} all of 
+     * them are matched ignoring case.
      * @param CMDLine an array of command line parameters 
      * @return null if the parameters are invalid. otherwise return either 
- a Rule to seek the extension desired.
+ a Rule to seek the extensions desired.
      */
     public static final FindExtension Parse(String[] CMDLine) {
+        var extensions = new LinkedHashSet<String>();
+        var ignoreCase = false;
         for (int i = 0; i < CMDLine.length; i++) {
-            if (Objects.equals(CMDLine[i].strip(), COMMAND)
-                    && i + 1 < CMDLine.length) {
+            var flag = CMDLine[i].strip();
+            var exact = Objects.equals(flag, COMMAND);
+            var folded = Objects.equals(flag, IGNORE_CASE_COMMAND);
+            if ((exact || folded) && i + 1 < CMDLine.length) {
                 var invalid = CMDLine[i + 1].strip().startsWith("-");
                 if (invalid) {
-                    return null;
+                    continue;
                 }
-                return new FindExtension(CMDLine[i + 1]);
+                for (var extension : CMDLine[i + 1].split(",")) {
+                    if (!extension.isBlank()) {
+                        extensions.add(extension);
+                    }
+                }
+                ignoreCase |= folded;
             }
         }
-        return null;
+        if (extensions.isEmpty()) {
+            return null;
+        }
+        return new FindExtension(extensions, ignoreCase);
     }
     
-    private final String Extension;
     /**
-     * creates a FindName.
+     * the extensions as provided (normalized to lower case if the case is 
+     * ignored) used to describe and compare the rule.
+     */
+    private final Set<String> Extensions;
+    private final boolean IgnoreCase;
+    /**
+     * the hashed extensions used to match.
+     */
+    private final ExtensionSet Lookup;
+
+    /**
+     * creates a FindExtension.
      *
-     * @param namePattern the name pattern to seek.
-     * @param Regex if the pattern is a Regular expression or not
+     * @param extension the extension to seek.
      */
     public FindExtension(String extension) {
+        this(List.of(extension), false);
+    }
+
+    /**
+     * creates a FindExtension that matches any of the provided extensions in
+     * a single check.
+     *
+     * @param extensions the extensions to seek. (at least one)
+     * @param ignoreCase whenever or not to ignore the case of the extensions
+     */
+    public FindExtension(Collection<String> extensions, boolean ignoreCase) {
         super("Searches files by the Extension");
-        Extension = extension.strip();
+        if (extensions.isEmpty()) {
+            throw new IllegalArgumentException("at least one extension is required");
+        }
+        var normalized = new LinkedHashSet<String>();
+        for (var extension : extensions) {
+            var value = extension.strip();
+            normalized.add(ignoreCase ? value.toLowerCase(Locale.ROOT) : value);
+        }
+        Extensions = Set.copyOf(normalized);
+        IgnoreCase = ignoreCase;
+        Lookup = new ExtensionSet(normalized, ignoreCase);
     }
 
     /**
@@ -62,22 +117,29 @@ public class FindExtension extends Rule {
     public boolean MatchRule(Path pathToFile) {
         //we assume the path is valid 
         var PathName = pathToFile.getFileName().toString();
-        if(PathName.indexOf('.')==-1){
+        var firstDot = PathName.indexOf('.');
+        if (firstDot == -1) {
             //no extension.
             return false;
         }
-        var FileExt = PathName.substring(PathName.indexOf('.'));
         //we could try both ways. check if .xxx or xxx we can later on add a "strict" rule
-        if (Objects.equals(Extension, FileExt)) {
-            return true;
-        }
-        FileExt = PathName.substring(PathName.lastIndexOf('.') + 1);
-        return Objects.equals(Extension, FileExt);
+        //the look up is done over the name itself so no substring is created.
+        return Lookup.contains(PathName, firstDot)
+                || Lookup.contains(PathName, PathName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public RuleCost getCost() {
+        return RuleCost.CHEAP;
     }
 
     @Override
     public String getRuleName() {
-        return String.format("%s matching %s", getBaseRuleName(), Extension);
+        return String.format("%s matching %s%s", getBaseRuleName(), String.join(", ", Extensions),
+                IgnoreCase ? " (ignoring case)" : "");
     }
     
         /**
@@ -92,7 +154,8 @@ public class FindExtension extends Rule {
             return false;
         }
         if (otherobj instanceof FindExtension other) {
-            return Objects.equals(Extension, other.Extension);
+            return IgnoreCase == other.IgnoreCase
+                    && Objects.equals(Extensions, other.Extensions);
         }
         return false;
     }
@@ -102,6 +165,6 @@ public class FindExtension extends Rule {
      */
     @Override
     public int hashCode() {
-       return Objects.hash(Extension,getBaseRuleName());
+       return Objects.hash(Extensions, IgnoreCase, getBaseRuleName());
     }
 }
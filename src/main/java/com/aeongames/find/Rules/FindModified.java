@@ -0,0 +1,167 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * matches the files modified after a point in time. (folders are not
+ * matched. their modified time only tells a entry was added or removed)
+ *
+ * @author Eduardo
+ */
+public class FindModified extends Rule {
+
+    public static final String COMMAND = "-newer";
+
+    /**
+     * gets a instance of the FindModified rule depending on the Command Line
+     * parameters. the value can be a instant (2025-06-01T10:15:30Z) a local
+     * date and time (2025-06-01T10:15:30) a local date (2025-06-01 its start)
+     * milliseconds since the epoch or a existing file (its modified time)
+     *
+     * @param CMDLine an array of command line parameters
+     * @return null if the parameters are invalid. otherwise a rule that
+     * matches the files modified after the provided time
+     */
+    public static final FindModified Parse(String[] CMDLine) {
+        for (int i = 0; i < CMDLine.length; i++) {
+            if (Objects.equals(CMDLine[i].strip(), COMMAND)
+                    && i + 1 < CMDLine.length) {
+                var value = CMDLine[i + 1].strip();
+                if (value.startsWith("-")) {
+                    return null;
+                }
+                var millis = parseTime(value);
+                return millis == null ? null : new FindModified(millis);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the time on milliseconds since the epoch or null if it is not a
+     * time nor a existing file.
+     */
+    private static Long parseTime(String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            //try the next format
+        }
+        try {
+            return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            //try the next format
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            //try the next format
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            //maybe a file
+        }
+        try {
+            return Files.getLastModifiedTime(Path.of(value)).toMillis();
+        } catch (IOException | InvalidPathException ex) {
+            return null;
+        }
+    }
+
+    private final long SinceMillis;
+
+    /**
+     * creates a FindModified.
+     *
+     * @param sinceMillis the files modified after this time (milliseconds
+     * since the epoch) are matched.
+     */
+    public FindModified(long sinceMillis) {
+        super("Find Files modified after");
+        SinceMillis = sinceMillis;
+    }
+
+    /**
+     * the time the files must be modified after.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getSinceMillis() {
+        return SinceMillis;
+    }
+
+    @Override
+    public boolean MatchRule(Path pathToFile) throws IOException {
+        if (Files.isDirectory(pathToFile)) {
+            return false;
+        }
+        return Files.getLastModifiedTime(pathToFile).toMillis() > SinceMillis;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        if (attributes == null || attributes.isSymbolicLink()) {
+            //links are resolved by the path based check. as it follows them
+            return MatchRule(pathToFile);
+        }
+        return !attributes.isDirectory() && attributes.lastModifiedTime().toMillis() > SinceMillis;
+    }
+
+    /**
+     * checks if there is another instance of this class with the same rules.
+     *
+     * @param otherobj the other object to check. can be null (but will return
+     * false)
+     * @return whenever or not this and the otherobj matches and represent the
+     * same rule (NOT the same reference)
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (Objects.isNull(otherobj)) {
+            return false;
+        }
+        if (otherobj instanceof FindModified other) {
+            return SinceMillis == other.SinceMillis;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(SinceMillis, getBaseRuleName());
+    }
+
+    @Override
+    public String getRuleName() {
+        return getBaseRuleName() + " " + Instant.ofEpochMilli(SinceMillis);
+    }
+}
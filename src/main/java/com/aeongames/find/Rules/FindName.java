@@ -12,8 +12,11 @@
  */
 package com.aeongames.find.Rules;
 
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 /**
@@ -24,6 +27,24 @@ public class FindName extends Rule {
 
     public static final String COMMAND = "-name";
 
+    /**
+     * how the name pattern is matched against the file names
+     */
+    public enum MatchType {
+        /**
+         * the name must be exactly the pattern
+         */
+        NAME,
+        /**
+         * the pattern is a Regular Expression ({@link Pattern})
+         */
+        REGEX,
+        /**
+         * the pattern is a glob (as {@link java.nio.file.FileSystem#getPathMatcher(String)})
+         */
+        GLOB
+    }
+
    /**
      * gets a instance of the FindName rule depending on the Command
      * Line parameters 
@@ -40,18 +61,48 @@ public class FindName extends Rule {
                 if (invalid) {
                     return null;
                 }
-                boolean Regex = false;
+                var type = MatchType.NAME;
                 if (hasOther) {
-                    Regex = CMDLine[i + 2].strip().equalsIgnoreCase("RE");
+                    var option = CMDLine[i + 2].strip();
+                    if (option.equalsIgnoreCase("RE")) {
+                        type = MatchType.REGEX;
+                    } else if (option.equalsIgnoreCase("GLOB")) {
+                        type = MatchType.GLOB;
+                    }
                 }
-                return new FindName(CMDLine[i + 1], Regex);
+                return new FindName(CMDLine[i + 1], type);
             }
         }
         return null;
     }
 
+    /**
+     * the regular expression characters that has a special meaning.
+     */
+    private static final String REGEX_META = "\\^$.|?*+()[]{}";
+    /**
+     * the glob characters that has a special meaning.
+     */
+    private static final String GLOB_META = "\\*?[]{}";
+    /**
+     * whenever the platform glob matcher ignores the case (like on windows)
+     * the plain string checks that replace it must do the same.
+     */
+    private static final boolean GLOB_IGNORES_CASE
+            = FileSystems.getDefault().getPathMatcher("glob:a").matches(Path.of("A"));
+
     private final String NamePattern;
-    private final boolean isRegex;
+    private final MatchType Type;
+    /**
+     * the matcher for the file name string. it is compiled once per rule.
+     * null if {@link #GlobMatcher} is used instead.
+     */
+    private final Predicate<String> NameMatcher;
+    /**
+     * the compiled glob matcher for globs that cannot be solved with plain
+     * string checks. null otherwise
+     */
+    private final PathMatcher GlobMatcher;
 
     /**
      * creates a FindName.
@@ -60,9 +111,39 @@ public class FindName extends Rule {
      * @param Regex if the pattern is a Regular expression or not
      */
     public FindName(String namePattern, boolean Regex) {
+        this(namePattern, Regex ? MatchType.REGEX : MatchType.NAME);
+    }
+
+    /**
+     * creates a FindName. the pattern is compiled once here. and simple
+     * patterns (a literal, a prefix, a suffix or a contains) are solved with
+     * plain string checks instead of the regular expression engine.
+     *
+     * @param namePattern the name pattern to seek.
+     * @param type how the pattern is matched.
+     * @throws java.util.regex.PatternSyntaxException if the pattern is not a
+     * valid regular expression or glob
+     */
+    public FindName(String namePattern, MatchType type) {
         super("Searches files by name.");
         NamePattern = namePattern.strip();
-        isRegex = Regex;
+        Type = Objects.requireNonNull(type, "the match type cannot be null");
+        var simple = switch (Type) {
+            case NAME -> equalsMatcher(NamePattern);
+            case REGEX -> simpleMatcher(NamePattern, ".*", REGEX_META, false);
+            case GLOB -> simpleMatcher(NamePattern, "*", GLOB_META, GLOB_IGNORES_CASE);
+        };
+        if (simple != null) {
+            NameMatcher = simple;
+            GlobMatcher = null;
+        } else if (Type == MatchType.REGEX) {
+            var compiled = Pattern.compile(NamePattern);
+            NameMatcher = name -> compiled.matcher(name).matches();
+            GlobMatcher = null;
+        } else {
+            NameMatcher = null;
+            GlobMatcher = FileSystems.getDefault().getPathMatcher("glob:" + NamePattern);
+        }
     }
 
     /**
@@ -78,20 +159,120 @@ public class FindName extends Rule {
     @Override
     public boolean MatchRule(Path pathToFile) {
         //we assume the path is valid 
-        var PathName = pathToFile.getFileName().toString();
-        if (!isRegex) {
-            return PathName.equals(NamePattern);
-        } else {
-            return Pattern.matches(NamePattern, PathName);
+        var FileName = pathToFile.getFileName();
+        if (GlobMatcher != null) {
+            return GlobMatcher.matches(FileName);
+        }
+        return NameMatcher.test(FileName.toString());
+    }
+
+    private static Predicate<String> equalsMatcher(String literal) {
+        return name -> name.equals(literal);
+    }
+
+    /**
+     * tries to solve the pattern with plain string checks. it supports a
+     * literal, a literal followed or preceded by the wildcard or a literal
+     * surrounded by it.
+     *
+     * @param pattern the pattern to analyze
+     * @param wildcard the "anything" wildcard on this pattern syntax
+     * @param meta the characters that has a special meaning on this syntax
+     * @param ignoreCase whenever the case is ignored
+     * @return a matcher or null if the pattern is not simple.
+     */
+    private static Predicate<String> simpleMatcher(String pattern, String wildcard, String meta,
+            boolean ignoreCase) {
+        var body = pattern;
+        var leading = body.startsWith(wildcard);
+        if (leading) {
+            body = body.substring(wildcard.length());
+        }
+        var trailing = body.endsWith(wildcard) && !body.endsWith("\\" + wildcard);
+        if (trailing) {
+            body = body.substring(0, body.length() - wildcard.length());
         }
+        var literal = unescape(body, meta);
+        if (literal == null) {
+            return null;
+        }
+        if (ignoreCase) {
+            return ignoringCase(literal, leading, trailing);
+        }
+        if (leading && trailing) {
+            return name -> name.contains(literal);
+        } else if (leading) {
+            return name -> name.endsWith(literal);
+        } else if (trailing) {
+            return name -> name.startsWith(literal);
+        }
+        return equalsMatcher(literal);
+    }
+
+    /**
+     * same checks of {@link #simpleMatcher} but ignoring the case.
+     */
+    private static Predicate<String> ignoringCase(String literal, boolean leading, boolean trailing) {
+        var length = literal.length();
+        if (leading && trailing) {
+            return name -> {
+                for (int i = 0; i + length <= name.length(); i++) {
+                    if (name.regionMatches(true, i, literal, 0, length)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        } else if (leading) {
+            return name -> name.length() >= length
+                    && name.regionMatches(true, name.length() - length, literal, 0, length);
+        } else if (trailing) {
+            return name -> name.regionMatches(true, 0, literal, 0, length);
+        }
+        return name -> name.equalsIgnoreCase(literal);
+    }
+
+    /**
+     * removes the escapes of special characters on a pattern.
+     *
+     * @return the literal text or null if the pattern has unescaped special
+     * characters or escapes that are not a special character (like \d)
+     */
+    private static String unescape(String pattern, String meta) {
+        var literal = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            var c = pattern.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= pattern.length() || meta.indexOf(pattern.charAt(i + 1)) == -1) {
+                    return null;
+                }
+                literal.append(pattern.charAt(++i));
+            } else if (meta.indexOf(c) != -1) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public RuleCost getCost() {
+        return RuleCost.CHEAP;
     }
 
     @Override
     public String getRuleName() {
         StringBuilder build = new StringBuilder(getBaseRuleName());
-        build.append(" matching");
-        if (isRegex) {
-            build.append("the Regular Expresion");
+        build.append(" matching ");
+        switch (Type) {
+            case REGEX -> build.append("the Regular Expresion ");
+            case GLOB -> build.append("the glob ");
+            case NAME -> {
+            }
         }
         build.append(NamePattern);
         return build.toString();
@@ -111,7 +292,7 @@ public class FindName extends Rule {
             return false;
         }
         if (otherobj instanceof FindName other) {
-            return isRegex == other.isRegex
+            return Type == other.Type
                     && Objects.equals(NamePattern, other.NamePattern);
         }
         return false;
@@ -122,6 +303,6 @@ public class FindName extends Rule {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(isRegex, NamePattern, getBaseRuleName());
+        return Objects.hash(Type, NamePattern, getBaseRuleName());
     }
 }
@@ -17,6 +17,7 @@ import com.aeongames.utils.sizes;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -94,6 +95,18 @@ public class FindSize extends Rule {
         return Files.size(pathToFile) >= MinimalSizeBytes;
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        if (attributes == null || attributes.isSymbolicLink()) {
+            //links are resolved by the path based check. as it follows them
+            return MatchRule(pathToFile);
+        }
+        return !attributes.isDirectory() && attributes.size() >= MinimalSizeBytes;
+    }
+
     /**
      * checks if there is another instance of this class with the same rules.
      *
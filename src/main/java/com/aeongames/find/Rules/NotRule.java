@@ -0,0 +1,123 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * matches when the negated rule does not match. it never prunes a folder.
+ * (the negation of a pruned rule might match anything under it)
+ *
+ * @author Eduardo
+ */
+public class NotRule extends Rule {
+
+    public static final String COMMAND = "-not";
+    /**
+     * same as {@link #COMMAND}
+     */
+    public static final String SHORT_COMMAND = "!";
+
+    /**
+     * negates a rule. a negated negation is the rule itself.
+     *
+     * @param rule the rule to negate.
+     * @return the negated rule.
+     */
+    public static Rule negate(Rule rule) {
+        if (rule instanceof NotRule not) {
+            return not.Negated;
+        }
+        return new NotRule(rule);
+    }
+
+    private final Rule Negated;
+
+    /**
+     * creates a NotRule. see {@link #negate(Rule)}
+     *
+     * @param rule the rule to negate.
+     */
+    public NotRule(Rule rule) {
+        super("Not");
+        Negated = Objects.requireNonNull(rule, "the rule cannot be null");
+    }
+
+    /**
+     * the negated rule.
+     *
+     * @return the rule this rule negates.
+     */
+    public Rule getRule() {
+        return Negated;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile) throws IOException {
+        return !Negated.MatchRule(pathToFile);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        return !Negated.MatchRule(pathToFile, attributes);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        return !Negated.MatchRule(pathToFile, attributes, depth);
+    }
+
+    /**
+     * the same cost as the negated rule.
+     */
+    @Override
+    public RuleCost getCost() {
+        return Negated.getCost();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean equals(Object otherobj) {
+        if (otherobj instanceof NotRule other) {
+            return Negated.equals(other.Negated);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(Negated, getBaseRuleName());
+    }
+
+    @Override
+    public String getRuleName() {
+        return "NOT " + Negated.getRuleName();
+    }
+}
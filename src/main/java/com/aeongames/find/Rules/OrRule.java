@@ -0,0 +1,79 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * matches when any of the combined rules match. it stops on the first rule
+ * that matches.
+ *
+ * @author Eduardo
+ */
+public class OrRule extends CompositeRule {
+
+    public static final String COMMAND = "-or";
+
+    /**
+     * creates a OrRule.
+     *
+     * @param rules the rules of which one must match. (at least one)
+     */
+    public OrRule(List<? extends Rule> rules) {
+        super("Any of", rules);
+    }
+
+    /**
+     * creates a OrRule.
+     *
+     * @param rules the rules of which one must match. (at least one)
+     */
+    public OrRule(Rule... rules) {
+        this(List.of(rules));
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        for (var rule : Children) {
+            if (rule.MatchRule(pathToFile, attributes, depth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * a folder is only skipped if all the rules prune it. as any of them
+     * could match something under it.
+     */
+    @Override
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        for (var rule : Children) {
+            if (rule.ShouldDescend(directory, attributes, depth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getRuleName() {
+        return joinNames("OR");
+    }
+}
@@ -14,6 +14,7 @@ package com.aeongames.find.Rules;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * an abstract class that defines the basic blueprint for find rules on files
@@ -40,7 +41,61 @@ public abstract class Rule {
      * @throws IOException if it fails to read File metadata (when and if required)
      */
     public abstract boolean MatchRule(Path pathToFile)throws IOException;
+
+    /**
+     * checks and returns whenever this rule is satisfied on this path reusing
+     * the attributes already read for it. so rules that require metadata does
+     * not need to read it again. by default it ignores the attributes and
+     * calls {@link #MatchRule(Path)}
+     * @param pathToFile the path to a file to check for match for this rule
+     * @param attributes the attributes of the file (read without following 
+     * links, so for a link they describe the link itself) or null if they are
+     * not available
+     * @return true if this rule is satisfied false otherwise. 
+     * @throws IOException if it fails to read File metadata (when and if required)
+     */
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes) throws IOException {
+        return MatchRule(pathToFile);
+    }
+
+    /**
+     * checks and returns whenever this rule is satisfied on this path knowing
+     * how deep it is from the base folder. by default the depth is ignored and
+     * calls {@link #MatchRule(Path, BasicFileAttributes)}
+     * @param pathToFile the path to a file to check for match for this rule
+     * @param attributes the attributes of the file or null if they are not 
+     * available
+     * @param depth the depth of the file. the entries of the base folder are 1
+     * @return true if this rule is satisfied false otherwise. 
+     * @throws IOException if it fails to read File metadata (when and if required)
+     */
+    public boolean MatchRule(Path pathToFile, BasicFileAttributes attributes, int depth) throws IOException {
+        return MatchRule(pathToFile, attributes);
+    }
+
+    /**
+     * checks whenever the search should go into this folder. if any rule 
+     * returns false the whole subtree is skipped (it is never listed) but the
+     * folder itself is still checked with {@link #MatchRule(Path)}.
+     * by default all folders are visited.
+     * @param directory the folder that is about to be listed
+     * @param attributes the attributes of the folder (never null)
+     * @param depth the depth of the folder. the entries of the base folder are 1
+     * @return true to descend into the folder. false to skip it.
+     */
+    public boolean ShouldDescend(Path directory, BasicFileAttributes attributes, int depth) {
+        return true;
+    }
     
+    /**
+     * estimates how expensive this rule is to evaluate. by default a rule is
+     * considered to require the file metadata.
+     * @return the estimated cost of this rule
+     */
+    public RuleCost getCost() {
+        return RuleCost.METADATA;
+    }
+
     /**
      * the full name of the Rule (might contain implementation details or other 
      * details
@@ -0,0 +1,51 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+/**
+ * a rough estimation of how expensive is to evaluate a rule. it is used to
+ * order the rules so the cheap ones run first.
+ *
+ * @author Eduardo
+ */
+public enum RuleCost {
+    /**
+     * the rule only check the path (name, extension) no I/O required.
+     */
+    CHEAP(1),
+    /**
+     * the rule requires the file metadata (type, size). no I/O is required if
+     * the attributes are provided but it is a stat call otherwise.
+     */
+    METADATA(4),
+    /**
+     * the rule requires to read the file content.
+     */
+    CONTENT(100);
+
+    private final int Weight;
+
+    private RuleCost(int weight) {
+        Weight = weight;
+    }
+
+    /**
+     * the relative weight of this cost. a rule with a weight of 4 is estimated
+     * to be 4 times as expensive as a rule with weight of 1.
+     *
+     * @return the relative weight of this cost
+     */
+    public int getWeight() {
+        return Weight;
+    }
+}
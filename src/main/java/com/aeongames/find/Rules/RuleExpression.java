@@ -0,0 +1,214 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.Rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * parses a boolean expression of rules from the command line. like find the
+ * rules next to each other must all match (an implicit -and) and they can be
+ * combined with -or, negated with -not (or !) and grouped with ( and ) for
+ * example:
+ * <pre>
+ * ( -ext jpg -or -ext png ) -not -name thumbs.db
+ * </pre>
+ * each rule is parsed by its own Parse with only its flag and values. the
+ * flags that are not rules (like -mode parallel) are ignored. -not binds
+ * tighter than -and that binds tighter than -or. the expression is built with
+ * the combinator rules. so it is flattened and short circuits.
+ *
+ * @author Eduardo
+ */
+public final class RuleExpression {
+
+    public static final String OPEN = "(";
+    public static final String CLOSE = ")";
+
+    /**
+     * the parsers of each rule. a parser returns null if the flag is not
+     * its own.
+     */
+    private static final List<Function<String[], Rule>> PARSERS = List.of(
+            FindDepth::Parse, ExcludeDirectory::Parse, FindDirectory::Parse, FindExtension::Parse,
+            FindName::Parse, FindSize::Parse, FindModified::Parse, FindContent::Parse);
+
+    /**
+     * checks if the command line parameters use any operator. (otherwise the
+     * rules are a plain list that must all match)
+     *
+     * @param CMDLine an array of command line parameters
+     * @return true if there is a operator or a group.
+     */
+    public static boolean isExpression(String[] CMDLine) {
+        for (var arg : CMDLine) {
+            if (isOperator(arg.strip())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks if a parameter is a operator or a parenthesis.
+     *
+     * @param token the parameter to check
+     * @return true if it is part of the expression syntax.
+     */
+    public static boolean isOperator(String token) {
+        return token.equals(OPEN) || token.equals(CLOSE) || token.equals(AndRule.COMMAND)
+                || token.equals(OrRule.COMMAND) || token.equals(NotRule.COMMAND)
+                || token.equals(NotRule.SHORT_COMMAND);
+    }
+
+    /**
+     * parses the rule expression of the command line parameters. the first
+     * parameter (the base folder) is not part of the expression.
+     *
+     * @param CMDLine an array of command line parameters
+     * @return the rule the expression represents. or null if there are no
+     * rules.
+     * @throws IllegalArgumentException if the expression is malformed. (like
+     * a missing parenthesis)
+     */
+    public static Rule Parse(String[] CMDLine) {
+        var parser = new RuleExpression(Arrays.copyOfRange(CMDLine, Math.min(1, CMDLine.length), CMDLine.length));
+        var rule = parser.or();
+        if (parser.Position < parser.Tokens.length) {
+            throw new IllegalArgumentException("unexpected " + parser.Tokens[parser.Position]);
+        }
+        return rule;
+    }
+
+    private final String[] Tokens;
+    private int Position = 0;
+
+    private RuleExpression(String[] tokens) {
+        Tokens = tokens;
+    }
+
+    /**
+     * or := and (-or and)*
+     */
+    private Rule or() {
+        var rules = new ArrayList<Rule>();
+        includeNonNull(and(), rules);
+        while (accept(OrRule.COMMAND)) {
+            var rule = rules.isEmpty() ? null : and();
+            if (rule == null) {
+                throw new IllegalArgumentException(OrRule.COMMAND + " requires a rule on both sides");
+            }
+            rules.add(rule);
+        }
+        return combine(rules, OrRule::new);
+    }
+
+    /**
+     * and := not ([-and] not)*
+     */
+    private Rule and() {
+        var rules = new ArrayList<Rule>();
+        while (Position < Tokens.length) {
+            var token = Tokens[Position].strip();
+            if (token.equals(OrRule.COMMAND) || token.equals(CLOSE)) {
+                break;
+            }
+            if (accept(AndRule.COMMAND) && (rules.isEmpty() || endsOperand())) {
+                throw new IllegalArgumentException(AndRule.COMMAND + " requires a rule on both sides");
+            }
+            includeNonNull(not(), rules);
+        }
+        return combine(rules, AndRule::new);
+    }
+
+    /**
+     * not := (-not | !) not | ( or ) | rule
+     */
+    private Rule not() {
+        if (accept(NotRule.COMMAND) || accept(NotRule.SHORT_COMMAND)) {
+            var rule = not();
+            if (rule == null) {
+                throw new IllegalArgumentException(NotRule.COMMAND + " requires a rule");
+            }
+            return NotRule.negate(rule);
+        }
+        if (accept(OPEN)) {
+            var rule = or();
+            if (!accept(CLOSE)) {
+                throw new IllegalArgumentException("missing " + CLOSE);
+            }
+            return rule;
+        }
+        return rule();
+    }
+
+    /**
+     * a flag and its values (until the next flag or operator) it returns null
+     * if it is not a rule.
+     */
+    private Rule rule() {
+        if (Position >= Tokens.length || isOperator(Tokens[Position].strip())) {
+            throw new IllegalArgumentException("missing rule after " + Tokens[Position - 1].strip());
+        }
+        var start = Position++;
+        while (Position < Tokens.length && !Tokens[Position].strip().startsWith("-")
+                && !isOperator(Tokens[Position].strip())) {
+            Position++;
+        }
+        var flag = Arrays.copyOfRange(Tokens, start, Position);
+        for (var parser : PARSERS) {
+            var rule = parser.apply(flag);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * whenever there is nothing left for the current operand. (the end, a
+     * -or, -and or a closing parenthesis)
+     */
+    private boolean endsOperand() {
+        if (Position >= Tokens.length) {
+            return true;
+        }
+        var token = Tokens[Position].strip();
+        return token.equals(OrRule.COMMAND) || token.equals(AndRule.COMMAND) || token.equals(CLOSE);
+    }
+
+    private boolean accept(String operator) {
+        if (Position < Tokens.length && Objects.equals(Tokens[Position].strip(), operator)) {
+            Position++;
+            return true;
+        }
+        return false;
+    }
+
+    private static Rule combine(List<Rule> rules, Function<List<Rule>, Rule> combinator) {
+        return switch (rules.size()) {
+            case 0 -> null;
+            case 1 -> rules.get(0);
+            default -> combinator.apply(rules);
+        };
+    }
+
+    private static void includeNonNull(Rule rule, List<Rule> rules) {
+        if (rule != null) {
+            rules.add(rule);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+/**
+ * how the last search of a {@link RuleExecutor} ended.
+ *
+ * @author Eduardo
+ */
+public enum SearchOutcome {
+    /**
+     * the whole tree was walked (or the search is still running)
+     */
+    COMPLETED,
+    /**
+     * the search stopped as soon as the result limit was reached.
+     */
+    LIMIT_REACHED,
+    /**
+     * the search was cancelled with {@link RuleExecutor#cancel()}
+     */
+    CANCELLED,
+    /**
+     * the search stopped because it took longer than the timeout.
+     */
+    TIMED_OUT
+}
@@ -0,0 +1,223 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import com.aeongames.find.Rules.Rule;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * counts where the time of a search goes. the folders listed, the entries
+ * visited, the attribute reads, the ignored IOExceptions and for each rule
+ * how many entries it evaluated and rejected and the time spent on it.
+ * <p>
+ * it is collected by a {@link RuleExecutor} only when enabled with
+ * {@link RuleExecutor#setCollectStatistics(boolean)} it is reset when each
+ * search starts and is updated live while the search runs (from any worker
+ * thread). so it can also be registered as a MXBean see
+ * {@link #register(String)}
+ * <p>
+ * the attribute reads only count the ones done by the executor. a rule that
+ * reads the metadata by itself (like for symbolic links) is not counted.
+ *
+ * @author Eduardo
+ */
+public final class SearchStatistics implements SearchStatisticsMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchStatistics.class.getName());
+    public static final String MBEAN_DOMAIN = "com.aeongames.find";
+
+    private final String[] RuleNames;
+    private final LongAdder DirectoriesListed = new LongAdder();
+    private final LongAdder EntriesVisited = new LongAdder();
+    private final LongAdder AttributeReads = new LongAdder();
+    private final LongAdder FailedAttributeReads = new LongAdder();
+    private final LongAdder IgnoredIOExceptions = new LongAdder();
+    private final LongAdder[] Evaluations;
+    private final LongAdder[] Rejections;
+    private final LongAdder[] Nanos;
+    private volatile long StartNanos = System.nanoTime();
+    /**
+     * the System.nanoTime when the search ended. 0 while it runs.
+     */
+    private volatile long EndNanos = 0;
+
+    SearchStatistics(List<Rule> rules) {
+        RuleNames = rules.stream().map(Rule::getRuleName).toArray(String[]::new);
+        Evaluations = newAdders(RuleNames.length);
+        Rejections = newAdders(RuleNames.length);
+        Nanos = newAdders(RuleNames.length);
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        var adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * clears the counters. called when a search starts.
+     */
+    void reset() {
+        DirectoriesListed.reset();
+        EntriesVisited.reset();
+        AttributeReads.reset();
+        FailedAttributeReads.reset();
+        IgnoredIOExceptions.reset();
+        for (int i = 0; i < RuleNames.length; i++) {
+            Evaluations[i].reset();
+            Rejections[i].reset();
+            Nanos[i].reset();
+        }
+        EndNanos = 0;
+        StartNanos = System.nanoTime();
+    }
+
+    /**
+     * marks that the search goes on. (another folder of the same search)
+     */
+    void resumed() {
+        EndNanos = 0;
+    }
+
+    /**
+     * marks the end of the search.
+     */
+    void finished() {
+        EndNanos = System.nanoTime();
+    }
+
+    void directoryListed() {
+        DirectoriesListed.increment();
+    }
+
+    void entryVisited() {
+        EntriesVisited.increment();
+    }
+
+    void attributesRead() {
+        AttributeReads.increment();
+    }
+
+    void attributesReadFailed() {
+        FailedAttributeReads.increment();
+    }
+
+    void ioExceptionIgnored() {
+        IgnoredIOExceptions.increment();
+    }
+
+    /**
+     * records the evaluation of a rule.
+     *
+     * @param index the index of the rule (on the order they were provided)
+     * @param rejected whenever the rule rejected the entry
+     * @param nanos the time the evaluation took
+     */
+    void ruleEvaluated(int index, boolean rejected, long nanos) {
+        Evaluations[index].increment();
+        if (rejected) {
+            Rejections[index].increment();
+        }
+        Nanos[index].add(nanos);
+    }
+
+    @Override
+    public long getDirectoriesListed() {
+        return DirectoriesListed.sum();
+    }
+
+    @Override
+    public long getEntriesVisited() {
+        return EntriesVisited.sum();
+    }
+
+    @Override
+    public long getAttributeReads() {
+        return AttributeReads.sum();
+    }
+
+    @Override
+    public long getFailedAttributeReads() {
+        return FailedAttributeReads.sum();
+    }
+
+    @Override
+    public long getIgnoredIOExceptions() {
+        return IgnoredIOExceptions.sum();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        var end = EndNanos;
+        return ((end == 0 ? System.nanoTime() : end) - StartNanos) / 1_000_000;
+    }
+
+    @Override
+    public RuleStatistics[] getRules() {
+        var statistics = new RuleStatistics[RuleNames.length];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new RuleStatistics(RuleNames[i], Evaluations[i].sum(),
+                    Rejections[i].sum(), Nanos[i].sum());
+        }
+        return statistics;
+    }
+
+    /**
+     * registers this statistics on the platform MBean server as
+     * com.aeongames.find:type=SearchStatistics,name=[name] any previous
+     * registration with the same name is replaced. a failure to register is
+     * logged and otherwise ignored as the statistics are still available.
+     *
+     * @param name the name to register it with.
+     */
+    public void register(String name) {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var objectName = new ObjectName(MBEAN_DOMAIN + ":type=SearchStatistics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException ex) {
+            LOGGER.log(Level.WARNING, "unable to register the search statistics", ex);
+        }
+    }
+
+    /**
+     * a human readable summary.
+     *
+     * @return a multi line summary of the statistics.
+     */
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("search statistics");
+        builder.append(System.lineSeparator()).append("  elapsed ").append(getElapsedMillis()).append(" ms")
+                .append(System.lineSeparator()).append("  directories listed ").append(getDirectoriesListed())
+                .append(System.lineSeparator()).append("  entries visited ").append(getEntriesVisited())
+                .append(System.lineSeparator()).append("  attribute reads ").append(getAttributeReads())
+                .append(System.lineSeparator()).append("  failed attribute reads ").append(getFailedAttributeReads())
+                .append(System.lineSeparator()).append("  ignored IOExceptions ").append(getIgnoredIOExceptions());
+        for (var rule : getRules()) {
+            builder.append(System.lineSeparator()).append("  ").append(rule);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,59 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+/**
+ * the management interface of {@link SearchStatistics}. so a long search can
+ * be watched with jconsole (or any JMX client) while it runs.
+ *
+ * @author Eduardo
+ */
+public interface SearchStatisticsMXBean {
+
+    /**
+     * @return the amount of folders listed.
+     */
+    long getDirectoriesListed();
+
+    /**
+     * @return the amount of entries (files and folders) visited.
+     */
+    long getEntriesVisited();
+
+    /**
+     * @return the amount of times the attributes of a entry were read.
+     */
+    long getAttributeReads();
+
+    /**
+     * @return the amount of times the attributes of a entry could not be read
+     * while listing. the rules read the metadata again by themselves. so the
+     * error is only ignored if the rules ignore it.
+     */
+    long getFailedAttributeReads();
+
+    /**
+     * @return the amount of IOExceptions that were ignored.
+     */
+    long getIgnoredIOExceptions();
+
+    /**
+     * @return the time the search took (or is taking) in milliseconds.
+     */
+    long getElapsedMillis();
+
+    /**
+     * @return the statistics of each rule on the order they were provided.
+     */
+    RuleStatistics[] getRules();
+}
@@ -0,0 +1,189 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the folders already walked while following links. so a link to a folder
+ * that is being walked (a cycle) or that was already walked (another link to
+ * it) is not walked again. on file systems with device and inode numbers
+ * (unix) each device keeps its inodes on open addressing tables of longs. so
+ * each folder costs about 8 to 16 bytes and no object. the numbers are taken
+ * from the file key of the attributes already read. (no extra read) on other
+ * file systems the file key (or the real path if there is none) of each
+ * folder is kept.
+ * <p>
+ * it is safe to use from several threads at once. the inodes of each device
+ * are split on several tables (by their hash) each with its own lock. so the
+ * workers of a parallel search rarely wait for each other.
+ *
+ * @author Eduardo
+ */
+final class VisitedDirectories {
+
+    /**
+     * the tables of each device. a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * the inodes of each device. there are only a few devices. so they are
+     * boxed.
+     */
+    private final Map<Long, InodeSet[]> Devices = new ConcurrentHashMap<>();
+    /**
+     * the folders of file systems without inodes.
+     */
+    private final Set<Object> Keys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * marks a folder as walked.
+     *
+     * @param directory the folder (or a link to it)
+     * @param attributes the attributes of the folder (following links) or
+     * null to read them.
+     * @return true if it was not walked before. so it must be walked.
+     * @throws IOException if the identity of the folder cannot be read.
+     */
+    boolean add(Path directory, BasicFileAttributes attributes) throws IOException {
+        if (attributes == null) {
+            attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+        }
+        Object key = attributes.fileKey();
+        if (key == null) {
+            return Keys.add(directory.toRealPath());
+        }
+        var identity = parseUnixKey(key.toString());
+        if (identity == null) {
+            return Keys.add(key);
+        }
+        return add(identity[0], identity[1]);
+    }
+
+    /**
+     * reads the device and inode of a unix file key. its text is
+     * (dev=hex,ino=decimal)
+     *
+     * @return the device and inode or null if it is not a unix file key.
+     */
+    static long[] parseUnixKey(String key) {
+        var separator = key.indexOf(",ino=");
+        if (!key.startsWith("(dev=") || separator < 0 || !key.endsWith(")")) {
+            return null;
+        }
+        try {
+            return new long[]{Long.parseUnsignedLong(key, 5, separator, 16),
+                Long.parseUnsignedLong(key, separator + 5, key.length() - 1, 10)};
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private boolean add(long device, long inode) {
+        var stripes = Devices.computeIfAbsent(device, any -> {
+            var tables = new InodeSet[STRIPES];
+            Arrays.setAll(tables, table -> new InodeSet());
+            return tables;
+        });
+        //the high bits pick the table. the table uses the low ones.
+        var table = stripes[(InodeSet.mix(inode) >>> 28) & (STRIPES - 1)];
+        synchronized (table) {
+            return table.add(inode);
+        }
+    }
+
+    /**
+     * the amount of folders walked.
+     */
+    long size() {
+        var size = (long) Keys.size();
+        for (var stripes : Devices.values()) {
+            for (var table : stripes) {
+                synchronized (table) {
+                    size += table.Size;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * a set of longs on a open addressing table (linear probing) 0 is the
+     * empty slot. so it is tracked apart.
+     */
+    private static final class InodeSet {
+
+        private long[] Slots = new long[64];
+        private int Size = 0;
+        private boolean HasZero = false;
+
+        boolean add(long value) {
+            if (value == 0) {
+                var added = !HasZero;
+                HasZero = true;
+                Size += added ? 1 : 0;
+                return added;
+            }
+            if ((Size + 1) * 4L > Slots.length * 3L) {
+                grow();
+            }
+            if (!insert(Slots, value)) {
+                return false;
+            }
+            Size++;
+            return true;
+        }
+
+        private void grow() {
+            var old = Slots;
+            Slots = new long[old.length * 2];
+            for (var value : old) {
+                if (value != 0) {
+                    insert(Slots, value);
+                }
+            }
+        }
+
+        /**
+         * @return false if the value was already on the table.
+         */
+        private static boolean insert(long[] slots, long value) {
+            var mask = slots.length - 1;
+            var slot = mix(value) & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == value) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+            return true;
+        }
+
+        /**
+         * spreads the bits. inodes are often sequential.
+         */
+        static int mix(long value) {
+            var hash = value * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * reads the central directory of a zip (or jar) archive. the entries are
+ * parsed straight from the bytes of the archive (without the zip file system
+ * or extracting anything) only the end records and the central directory are
+ * read. the content of a entry is only read to look inside a nested archive.
+ * it supports zip64 archives and the extended timestamp of the entries.
+ *
+ * @author Eduardo
+ */
+final class ZipDirectory {
+
+    /**
+     * receives each entry of the central directory.
+     */
+    interface Visitor {
+
+        /**
+         * @param entry the entry that was read.
+         * @return false to stop reading the entries.
+         */
+        boolean visit(Entry entry) throws IOException;
+    }
+
+    /**
+     * a entry of the central directory.
+     *
+     * @param name the full name of the entry inside the archive (folders end
+     * with /)
+     * @param size the uncompressed size
+     * @param compressedSize the size stored on the archive
+     * @param method the compression method (0 stored, 8 deflated)
+     * @param modifiedMillis the modified time (milliseconds since the epoch)
+     * @param localHeaderOffset where the local header of the entry starts
+     */
+    record Entry(String name, long size, long compressedSize, int method, long modifiedMillis,
+            long localHeaderOffset) {
+
+        boolean isDirectory() {
+            return name.endsWith("/");
+        }
+    }
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_SIZE = 56;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_SIZE = 30;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final int TIMESTAMP_EXTRA = 0x5455;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    /**
+     * the end record is followed by a comment of up to 64KB.
+     */
+    private static final int MAX_COMMENT = 0xFFFF;
+    /**
+     * reads bigger than this are mapped.
+     */
+    private static final int MAP_THRESHOLD = 1 << 16;
+
+    private final Source Archive;
+
+    /**
+     * reads the archive from a file. (only the parts that are needed)
+     *
+     * @param channel the opened archive. it is not closed by this.
+     */
+    ZipDirectory(FileChannel channel) {
+        Archive = new ChannelSource(channel);
+    }
+
+    /**
+     * reads a archive that is already on memory. (like a nested one)
+     *
+     * @param content the whole archive.
+     */
+    ZipDirectory(ByteBuffer content) {
+        Archive = new BufferSource(content.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * hands each entry of the central directory to the visitor on the order
+     * they are stored.
+     *
+     * @throws ZipException if it is not a zip archive or it is damaged.
+     * @throws IOException if the archive cannot be read.
+     */
+    void forEach(Visitor visitor) throws IOException {
+        var size = Archive.size();
+        if (size < END_SIZE) {
+            throw new ZipException("too small to be a zip archive");
+        }
+        var tailLength = (int) Math.min(size, END_SIZE + MAX_COMMENT);
+        var tail = Archive.read(size - tailLength, tailLength);
+        var end = -1;
+        for (int i = tailLength - END_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE
+                    && i + END_SIZE + Short.toUnsignedInt(tail.getShort(i + 20)) <= tailLength) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("there is no end of central directory record");
+        }
+        long count = Short.toUnsignedInt(tail.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+        if (count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            var locator = end - ZIP64_LOCATOR_SIZE;
+            if (locator >= 0 && tail.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+                var zip64End = Archive.read(tail.getLong(locator + 8), ZIP64_END_SIZE);
+                if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                    throw new ZipException("invalid zip64 end of central directory record");
+                }
+                count = zip64End.getLong(32);
+                directorySize = zip64End.getLong(40);
+                directoryOffset = zip64End.getLong(48);
+            }
+        }
+        if (directoryOffset + directorySize > size || directorySize > Integer.MAX_VALUE) {
+            throw new ZipException("invalid central directory");
+        }
+        var directory = Archive.read(directoryOffset, (int) directorySize);
+        var position = 0;
+        var nameBytes = new byte[256];
+        for (long read = 0; read < count; read++) {
+            if (position + CENTRAL_SIZE > directory.limit() || directory.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new ZipException("invalid central directory header");
+            }
+            var flags = Short.toUnsignedInt(directory.getShort(position + 8));
+            var method = Short.toUnsignedInt(directory.getShort(position + 10));
+            var time = Short.toUnsignedInt(directory.getShort(position + 12));
+            var date = Short.toUnsignedInt(directory.getShort(position + 14));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long entrySize = Integer.toUnsignedLong(directory.getInt(position + 24));
+            var nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            var extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            var commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            long localOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+            var next = position + CENTRAL_SIZE + nameLength + extraLength + commentLength;
+            if (next > directory.limit()) {
+                throw new ZipException("invalid central directory header");
+            }
+            if (nameLength > nameBytes.length) {
+                nameBytes = new byte[nameLength];
+            }
+            directory.get(position + CENTRAL_SIZE, nameBytes, 0, nameLength);
+            //names are UTF-8 (the same default of java.util.zip) flag 11 only confirms it.
+            var name = new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8);
+            var modified = dosToMillis(date, time);
+            //the extra fields replace the values that did not fit or are more precise.
+            var extra = position + CENTRAL_SIZE + nameLength;
+            var extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                var id = Short.toUnsignedInt(directory.getShort(extra));
+                var length = Short.toUnsignedInt(directory.getShort(extra + 2));
+                var data = extra + 4;
+                if (data + length > extraEnd) {
+                    break;
+                }
+                if (id == ZIP64_EXTRA) {
+                    var field = data;
+                    if (entrySize == 0xFFFFFFFFL && field + 8 <= data + length) {
+                        entrySize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL && field + 8 <= data + length) {
+                        compressedSize = directory.getLong(field);
+                        field += 8;
+                    }
+                    if (localOffset == 0xFFFFFFFFL && field + 8 <= data + length) {
+                        localOffset = directory.getLong(field);
+                    }
+                } else if (id == TIMESTAMP_EXTRA && length >= 5 && (directory.get(data) & 1) != 0) {
+                    modified = Integer.toUnsignedLong(directory.getInt(data + 1)) * 1000;
+                }
+                extra = data + length;
+            }
+            if ((flags & 1) != 0) {
+                //encrypted. the name and sizes are still valid.
+                method = -1;
+            }
+            if (!visitor.visit(new Entry(name, entrySize, compressedSize, method, modified, localOffset))) {
+                return;
+            }
+            position = next;
+        }
+    }
+
+    /**
+     * reads the whole content of a entry on memory. (to look inside a nested
+     * archive)
+     *
+     * @param entry the entry to read.
+     * @return the uncompressed content.
+     * @throws ZipException if the entry uses a unsupported compression, is
+     * encrypted or is damaged.
+     * @throws IOException if the archive cannot be read.
+     */
+    ByteBuffer read(Entry entry) throws IOException {
+        if (entry.size() > Integer.MAX_VALUE || entry.compressedSize() > Integer.MAX_VALUE) {
+            throw new ZipException(entry.name() + " is too big to be read on memory");
+        }
+        var local = Archive.read(entry.localHeaderOffset(), LOCAL_SIZE);
+        if (local.getInt(0) != LOCAL_SIGNATURE) {
+            throw new ZipException("invalid local header of " + entry.name());
+        }
+        var dataOffset = entry.localHeaderOffset() + LOCAL_SIZE
+                + Short.toUnsignedInt(local.getShort(26)) + Short.toUnsignedInt(local.getShort(28));
+        var stored = Archive.read(dataOffset, (int) entry.compressedSize());
+        if (entry.method() == STORED) {
+            return stored;
+        }
+        if (entry.method() != DEFLATED) {
+            throw new ZipException(entry.name() + " uses a unsupported compression method");
+        }
+        var content = ByteBuffer.allocate((int) entry.size());
+        var inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored);
+            while (content.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(content) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException(entry.name() + " is truncated");
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException(entry.name() + " is damaged: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return content.flip();
+    }
+
+    /**
+     * converts a MS-DOS date and time (local time, 2 seconds precision)
+     */
+    private static long dosToMillis(int date, int time) {
+        try {
+            return LocalDateTime.of(((date >> 9) & 0x7F) + 1980, (date >> 5) & 0x0F, date & 0x1F,
+                    (time >> 11) & 0x1F, (time >> 5) & 0x3F, (time & 0x1F) * 2)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException ex) {
+            //not a valid date (some tools store 0)
+            return 0;
+        }
+    }
+
+    /**
+     * where the bytes of the archive come from.
+     */
+    private interface Source {
+
+        long size() throws IOException;
+
+        /**
+         * @return a little endian buffer with exactly length bytes.
+         */
+        ByteBuffer read(long position, int length) throws IOException;
+    }
+
+    private static final class ChannelSource implements Source {
+
+        private final FileChannel Channel;
+
+        private ChannelSource(FileChannel channel) {
+            Channel = channel;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return Channel.size();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) throws IOException {
+            if (position < 0 || position + length > Channel.size()) {
+                throw new ZipException("the archive is truncated");
+            }
+            if (length > MAP_THRESHOLD) {
+                //a big central directory (or nested archive) is mapped instead of copied.
+                return Channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (Channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new ZipException("the archive is truncated");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static final class BufferSource implements Source {
+
+        private final ByteBuffer Content;
+
+        private BufferSource(ByteBuffer content) {
+            Content = content;
+        }
+
+        @Override
+        public long size() {
+            return Content.limit();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int length) throws IOException {
+            if (position < 0 || position + length > Content.limit()) {
+                throw new ZipException("the archive is truncated");
+            }
+            return Content.slice((int) position, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
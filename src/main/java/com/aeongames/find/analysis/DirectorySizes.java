@@ -0,0 +1,216 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * computes the recursive size and file count of each folder in a single
+ * walk (like du) the tree is walked by the executor. (so its execution mode,
+ * parallelism, statistics and flight recording apply as on any search) each
+ * file that matches is added to the folders that contain it. only the
+ * totals of the folders up to the requested depth are kept. the deeper ones
+ * are added to their ancestor at that depth.
+ * <p>
+ * the rules select the files that are counted (so -ext jpg totals only the
+ * jpg files) and can prune folders with
+ * {@link Rule#ShouldDescend(Path, BasicFileAttributes, int)} the size of a
+ * symbolic link is the one of the link (or of the target if the executor
+ * follows the links) and a file with several hard links is counted on each
+ * of them. when the executor ignores the IOExceptions the folders that
+ * cannot be listed are skipped and counted on
+ * {@link #getUnreadableDirectories()} otherwise they fail the computation.
+ * the entries of the archives (if the executor looks inside them) are
+ * counted on the folder of the archive.
+ * <p>
+ * the limit, timeout and cancel of the executor stop the walk. the totals
+ * are then the ones of what was walked so far. see
+ * {@link RuleExecutor#getOutcome()}
+ *
+ * @author Eduardo
+ */
+public final class DirectorySizes {
+
+    public static final String COMMAND = "-du";
+
+    private final RuleExecutor Executor;
+    private final LongAdder Unreadable = new LongAdder();
+
+    /**
+     * creates a aggregation that counts the files that match the rules.
+     *
+     * @param rules the rules to select the files to count.
+     */
+    public DirectorySizes(List<Rule> rules) {
+        this(new RuleExecutor(rules));
+    }
+
+    /**
+     * creates a aggregation that counts the files the executor matches. the
+     * executor walks the tree with its own settings.
+     *
+     * @param executor the executor with the rules to select the files.
+     */
+    public DirectorySizes(RuleExecutor executor) {
+        Executor = executor;
+    }
+
+    /**
+     * the folders that could not be listed on the last computation.
+     *
+     * @return the amount of folders skipped.
+     */
+    public long getUnreadableDirectories() {
+        return Unreadable.sum();
+    }
+
+    /**
+     * computes the totals of the base folder and its subfolders.
+     *
+     * @param basePath the folder to aggregate.
+     * @param maxDepth the deepest folders to report. 0 only reports the base
+     * folder. (the whole tree is still counted)
+     * @return the totals of the folders up to the depth. the biggest first.
+     * partial if the executor stopped early.
+     * @throws IOException if the base folder cannot be listed or a rule
+     * fails.
+     */
+    public List<DirectoryTotal> compute(Path basePath, int maxDepth) throws IOException {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("the depth cannot be negative");
+        }
+        Unreadable.reset();
+        var aggregation = new Aggregation(basePath, maxDepth);
+        Executor.ExecuteRuleWithAttributes(basePath, true, aggregation::matched, aggregation);
+        var totals = new ArrayList<DirectoryTotal>(aggregation.Totals.size());
+        aggregation.Totals.values().forEach(total -> totals.add(total.snapshot()));
+        totals.sort(Comparator.comparingLong(DirectoryTotal::getSize).reversed()
+                .thenComparing(DirectoryTotal::getDirectory));
+        return totals;
+    }
+
+    /**
+     * the totals of a computation. the folders are handed by the walk and
+     * the files by the sink.
+     */
+    private final class Aggregation implements RuleExecutor.FolderListener {
+
+        /**
+         * the folders up to the depth. by path.
+         */
+        private final Map<Path, Total> Totals = new ConcurrentHashMap<>();
+        /**
+         * the names of the base folder. so the ancestor of a path at the
+         * depth is its prefix.
+         */
+        private final int BaseNames;
+        private final int maxDepth;
+
+        private Aggregation(Path basePath, int maxDepth) {
+            BaseNames = basePath.getNameCount();
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        public void walking(Path directory, int depth) {
+            if (depth <= maxDepth) {
+                //the parent was walked first. so it is already there.
+                var parent = depth == 0 ? null : Totals.get(directory.getParent());
+                Totals.put(directory, new Total(directory, depth, parent));
+            }
+            if (depth > 0) {
+                ancestor(directory, depth).add(0, 0, 1);
+            }
+        }
+
+        @Override
+        public void unreadable(Path directory, int depth, IOException ex) {
+            Unreadable.increment();
+        }
+
+        private void matched(Path path, BasicFileAttributes attributes) {
+            if (attributes == null || attributes.isDirectory()) {
+                return;
+            }
+            var depth = path.getNameCount() - BaseNames;
+            var ancestor = ancestor(path, depth);
+            if (ancestor != null) {
+                ancestor.add(attributes.size(), 1, 0);
+            }
+        }
+
+        /**
+         * the deepest folder kept that contains the path.
+         */
+        private Total ancestor(Path path, int depth) {
+            Path folder;
+            if (depth - 1 <= maxDepth) {
+                folder = path.getParent();
+            } else {
+                var names = path.subpath(0, BaseNames + maxDepth);
+                folder = path.getRoot() == null ? names : path.getRoot().resolve(names);
+            }
+            //a entry of a archive is under the archive. not a folder.
+            while (folder != null) {
+                var total = Totals.get(folder);
+                if (total != null) {
+                    return total;
+                }
+                folder = folder.getParent();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * the running totals of a folder. each addition is also added to its
+     * ancestors.
+     */
+    private static final class Total {
+
+        private final Path Directory;
+        private final int depth;
+        private final Total parent;
+        private final LongAdder Size = new LongAdder();
+        private final LongAdder Files = new LongAdder();
+        private final LongAdder Directories = new LongAdder();
+
+        private Total(Path directory, int depth, Total parent) {
+            Directory = directory;
+            this.depth = depth;
+            this.parent = parent;
+        }
+
+        private void add(long size, long files, long directories) {
+            for (var total = this; total != null; total = total.parent) {
+                total.Size.add(size);
+                total.Files.add(files);
+                total.Directories.add(directories);
+            }
+        }
+
+        private DirectoryTotal snapshot() {
+            return new DirectoryTotal(Directory, depth, Size.sum(), Files.sum(), Directories.sum());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import java.nio.file.Path;
+
+/**
+ * the recursive totals of a folder.
+ *
+ * @author Eduardo
+ */
+public final class DirectoryTotal {
+
+    private final Path Directory;
+    private final int Depth;
+    private final long Size;
+    private final long Files;
+    private final long Directories;
+
+    DirectoryTotal(Path directory, int depth, long size, long files, long directories) {
+        Directory = directory;
+        Depth = depth;
+        Size = size;
+        Files = files;
+        Directories = directories;
+    }
+
+    /**
+     * @return the folder.
+     */
+    public Path getDirectory() {
+        return Directory;
+    }
+
+    /**
+     * @return the depth of the folder. the base folder is 0
+     */
+    public int getDepth() {
+        return Depth;
+    }
+
+    /**
+     * @return the size in bytes of the files under the folder (at any depth)
+     */
+    public long getSize() {
+        return Size;
+    }
+
+    /**
+     * @return the amount of files under the folder (at any depth)
+     */
+    public long getFiles() {
+        return Files;
+    }
+
+    /**
+     * @return the amount of folders under the folder (at any depth)
+     */
+    public long getDirectories() {
+        return Directories;
+    }
+}
@@ -0,0 +1,318 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.Rule;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * finds the files with the same content. reading as little as possible:
+ * <ol>
+ * <li>the tree is walked once (with the rules of the search) and the regular
+ * files are grouped by size. a file with a unique size has no duplicates and
+ * is never read.</li>
+ * <li>the files that share a size are hashed by their first and last
+ * {@value #EDGE} bytes. (small files are hashed whole here)</li>
+ * <li>only the files that still share a size and partial hash are hashed
+ * whole. several files at once. each through a buffer reused by its
+ * thread.</li>
+ * </ol>
+ * only the regular files (of at least 1 byte) the rules match are compared.
+ * hard links to the same file are reported once. as they do not waste space.
+ * a file that cannot be read (or changes its size while hashed) is left out
+ * of its group.
+ *
+ * @author Eduardo
+ */
+public final class DuplicateFinder {
+
+    private static final Logger LOGGER = Logger.getLogger(DuplicateFinder.class.getName());
+    public static final String COMMAND = "-duplicates";
+    /**
+     * the bytes hashed from the start and from the end of a file on the
+     * partial hash.
+     */
+    static final int EDGE = 4096;
+    /**
+     * the size of the buffer each thread reads the whole files with.
+     */
+    private static final int READ_BUFFER = 1 << 20;
+    /**
+     * the buffer of each hashing thread. direct so the reads are not copied
+     * again. it is never shared as each file is hashed by a single thread.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFERS
+            = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER));
+    private static final String DIGEST = "SHA-256";
+
+    private final RuleExecutor Executor;
+    private int Parallelism = Runtime.getRuntime().availableProcessors();
+    private final LongAdder BytesRead = new LongAdder();
+    private long BytesScanned = 0;
+
+    /**
+     * creates a finder that checks the regular files (of at least 1 byte)
+     * that matches the provided rules.
+     *
+     * @param rules the rules to select the files to compare.
+     */
+    public DuplicateFinder(List<Rule> rules) {
+        this(new RuleExecutor(rules));
+    }
+
+    /**
+     * creates a finder that walks the tree with the provided executor (so its
+     * mode, limit and timeout apply). only the regular files it matches are
+     * compared.
+     *
+     * @param executor the executor with the rules to select the files.
+     */
+    public DuplicateFinder(RuleExecutor executor) {
+        Executor = executor;
+    }
+
+    /**
+     * sets how many files are hashed at once. by default one per processor.
+     *
+     * @param level the amount of files hashed at once. must be 1 or more
+     */
+    public void setParallelism(int level) {
+        if (level < 1) {
+            throw new IllegalArgumentException("the parallelism level must be 1 or more");
+        }
+        Parallelism = level;
+    }
+
+    /**
+     * finds the duplicated files under the base path.
+     *
+     * @param basePath the folder to search.
+     * @return the groups of files with the same content. the ones that waste
+     * the most space first.
+     * @throws IOException if the tree cannot be walked. (a file that cannot be
+     * read is left out of the results)
+     */
+    public List<DuplicateGroup> find(Path basePath) throws IOException {
+        BytesRead.reset();
+        var bySize = new HashMap<Long, List<Path>>();
+        var keys = new HashSet<Object>();
+        var scanned = new long[1];
+        Executor.ExecuteRuleWithAttributes(basePath, true, (path, attributes) -> {
+            //the only place the files are filtered. whatever built the executor.
+            if (attributes == null || !attributes.isRegularFile() || attributes.size() == 0) {
+                return;
+            }
+            //a hard link is the same file. not a copy.
+            var key = attributes.fileKey();
+            if (key != null && !keys.add(key)) {
+                return;
+            }
+            scanned[0] += attributes.size();
+            bySize.computeIfAbsent(attributes.size(), size -> new LinkedList<>()).add(path);
+        });
+        BytesScanned = scanned[0];
+        var candidates = new ArrayList<Candidate>();
+        for (var entry : bySize.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                for (var path : entry.getValue()) {
+                    candidates.add(new Candidate(path, entry.getKey()));
+                }
+            }
+        }
+        //the partial hash (whole for small files)
+        var partial = regroup(hashAll(candidates, false));
+        var results = new ArrayList<DuplicateGroup>();
+        var pending = new ArrayList<Candidate>();
+        for (var group : partial) {
+            if (group.get(0).Size <= 2L * EDGE) {
+                results.add(toGroup(group));
+            } else {
+                pending.addAll(group);
+            }
+        }
+        for (var group : regroup(hashAll(pending, true))) {
+            results.add(toGroup(group));
+        }
+        results.sort(Comparator.comparingLong(DuplicateGroup::getWastedBytes).reversed());
+        return results;
+    }
+
+    /**
+     * the bytes read while hashing on the last search.
+     *
+     * @return the amount of bytes read.
+     */
+    public long getBytesRead() {
+        return BytesRead.sum();
+    }
+
+    /**
+     * the total size of the files found on the last search.
+     *
+     * @return the size in bytes of the files that were compared.
+     */
+    public long getBytesScanned() {
+        return BytesScanned;
+    }
+
+    private static DuplicateGroup toGroup(List<Candidate> group) {
+        return new DuplicateGroup(group.get(0).Size, group.stream().map(candidate -> candidate.File).toList());
+    }
+
+    /**
+     * groups the candidates by size and hash. the groups with a single file
+     * (or files that could not be read) are dropped.
+     */
+    private static List<List<Candidate>> regroup(List<Candidate> hashed) {
+        var groups = new HashMap<String, List<Candidate>>();
+        for (var candidate : hashed) {
+            if (candidate.Hash != null) {
+                groups.computeIfAbsent(candidate.Size + ":" + candidate.Hash, key -> new ArrayList<>()).add(candidate);
+            }
+        }
+        var result = new ArrayList<List<Candidate>>();
+        for (var group : groups.values()) {
+            if (group.size() > 1) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * hashes the candidates on a dedicated pool. several files at once.
+     */
+    private List<Candidate> hashAll(List<Candidate> candidates, boolean full) throws IOException {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        var pool = new ForkJoinPool(Parallelism);
+        try {
+            return pool.submit(() -> candidates.parallelStream()
+                    .map(candidate -> candidate.hashed(hash(candidate, full)))
+                    .toList()).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while hashing", ex);
+        } catch (ExecutionException ex) {
+            //the files that cannot be read are already left out. this is a bug
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return the hash or null if the file could not be read.
+     */
+    private String hash(Candidate candidate, boolean full) {
+        try (var channel = FileChannel.open(candidate.File, StandardOpenOption.READ)) {
+            var digest = MessageDigest.getInstance(DIGEST);
+            if (full) {
+                hashWhole(channel, candidate.Size, digest);
+            } else if (candidate.Size <= 2L * EDGE) {
+                hashRange(channel, 0, (int) candidate.Size, digest);
+            } else {
+                hashRange(channel, 0, EDGE, digest);
+                hashRange(channel, candidate.Size - EDGE, EDGE, digest);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "unable to hash " + candidate.File, ex);
+            return null;
+        } catch (NoSuchAlgorithmException ex) {
+            //every java platform has SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void hashRange(FileChannel channel, long position, int length, MessageDigest digest) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+        }
+        BytesRead.add(buffer.position());
+        if (buffer.hasRemaining()) {
+            throw new EOFException("the file was truncated while hashing");
+        }
+        digest.update(buffer.flip());
+    }
+
+    /**
+     * hashes the file on chunks. a file truncated while hashing is a error
+     * (so it is dropped from its group) unlike a mapped file that would crash
+     * the whole process.
+     */
+    private void hashWhole(FileChannel channel, long size, MessageDigest digest) throws IOException {
+        var buffer = BUFFERS.get();
+        long position = 0;
+        try {
+            while (position < size) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), size - position));
+                var read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("the file was truncated while hashing");
+                }
+                position += read;
+                digest.update(buffer.flip());
+            }
+        } finally {
+            BytesRead.add(position);
+        }
+    }
+
+    /**
+     * a file that might have duplicates.
+     */
+    private static final class Candidate {
+
+        private final Path File;
+        private final long Size;
+        private final String Hash;
+
+        private Candidate(Path file, long size) {
+            this(file, size, null);
+        }
+
+        private Candidate(Path file, long size, String hash) {
+            File = file;
+            Size = size;
+            Hash = hash;
+        }
+
+        private Candidate hashed(String hash) {
+            return new Candidate(File, Size, hash);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * a set of files with the same content.
+ *
+ * @author Eduardo
+ */
+public final class DuplicateGroup {
+
+    private final long Size;
+    private final List<Path> Files;
+
+    DuplicateGroup(long size, List<Path> files) {
+        Size = size;
+        Files = List.copyOf(files);
+    }
+
+    /**
+     * @return the size of each file.
+     */
+    public long getSize() {
+        return Size;
+    }
+
+    /**
+     * @return the files with the same content. (at least 2)
+     */
+    public List<Path> getFiles() {
+        return Files;
+    }
+
+    /**
+     * the space that would be freed keeping a single copy.
+     *
+     * @return the wasted space in bytes.
+     */
+    public long getWastedBytes() {
+        return Size * (Files.size() - 1);
+    }
+}
@@ -0,0 +1,55 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * a file that made it into a top.
+ *
+ * @author Eduardo
+ */
+public final class RankedFile {
+
+    private final Path File;
+    private final long Size;
+    private final FileTime Modified;
+
+    RankedFile(Path file, long size, FileTime modified) {
+        File = file;
+        Size = size;
+        Modified = modified;
+    }
+
+    /**
+     * @return the file.
+     */
+    public Path getFile() {
+        return File;
+    }
+
+    /**
+     * @return the size of the file in bytes.
+     */
+    public long getSize() {
+        return Size;
+    }
+
+    /**
+     * @return the last time the file was modified.
+     */
+    public FileTime getModified() {
+        return Modified;
+    }
+}
@@ -0,0 +1,137 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.analysis;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * finds the N biggest (or most recently modified) files. while the tree is
+ * walked only the current N winners are kept on a min heap. a file that does
+ * not beat the smallest winner is dropped right away. so the memory is O(N)
+ * no matter how many files match.
+ * <p>
+ * only regular files are ranked. (a symbolic link is not. so a file is not
+ * ranked twice)
+ *
+ * @author Eduardo
+ */
+public final class TopFiles {
+
+    public static final String COMMAND = "-top";
+
+    /**
+     * what the files are ranked by.
+     */
+    public enum Order {
+        /**
+         * the biggest files first.
+         */
+        SIZE(Comparator.comparingLong(RankedFile::getSize)),
+        /**
+         * the most recently modified files first.
+         */
+        MODIFIED(Comparator.comparing(RankedFile::getModified));
+
+        private final Comparator<RankedFile> Ascending;
+
+        private Order(Comparator<RankedFile> ascending) {
+            Ascending = ascending;
+        }
+
+        /**
+         * gets the order from the Command line parameters. the value after
+         * the count of {@link #COMMAND} (size or mtime)
+         *
+         * @param CMDLine an array of command line parameters
+         * @return the order. {@link #SIZE} if not specified
+         */
+        public static Order Parse(String[] CMDLine) {
+            for (int i = 0; i < CMDLine.length; i++) {
+                if (Objects.equals(CMDLine[i].strip(), COMMAND) && i + 2 < CMDLine.length
+                        && CMDLine[i + 2].strip().equalsIgnoreCase("mtime")) {
+                    return MODIFIED;
+                }
+            }
+            return SIZE;
+        }
+    }
+
+    private final RuleExecutor Executor;
+    private final int Count;
+    private final Order By;
+
+    /**
+     * creates a top of the files that match the rules.
+     *
+     * @param rules the rules to select the files to rank.
+     * @param count how many files to keep. must be 1 or more
+     * @param by what the files are ranked by.
+     */
+    public TopFiles(List<Rule> rules, int count, Order by) {
+        this(new RuleExecutor(rules), count, by);
+    }
+
+    /**
+     * creates a top of the files the executor matches. (its mode, timeout
+     * and so on apply)
+     *
+     * @param executor the executor with the rules to select the files.
+     * @param count how many files to keep. must be 1 or more
+     * @param by what the files are ranked by.
+     */
+    public TopFiles(RuleExecutor executor, int count, Order by) {
+        if (count < 1) {
+            throw new IllegalArgumentException("the count must be 1 or more");
+        }
+        Executor = executor;
+        Count = count;
+        By = Objects.requireNonNull(by, "the order cannot be null");
+    }
+
+    /**
+     * walks the tree and ranks the files.
+     *
+     * @param basePath the folder to search.
+     * @return at most count files. the first is the biggest (or most recent)
+     * @throws IOException if there was a I/O problem walking the tree.
+     */
+    public List<RankedFile> find(Path basePath) throws IOException {
+        //the head is the smallest winner. the one to beat.
+        var heap = new PriorityQueue<RankedFile>(Count + 1, By.Ascending);
+        //the executor never calls the sink concurrently.
+        Executor.ExecuteRuleWithAttributes(basePath, true, (path, attributes) -> {
+            if (attributes == null || !attributes.isRegularFile()) {
+                return;
+            }
+            var candidate = new RankedFile(path, attributes.size(), attributes.lastModifiedTime());
+            if (heap.size() < Count) {
+                heap.add(candidate);
+            } else if (By.Ascending.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        var winners = new ArrayList<>(heap);
+        winners.sort(Collections.reverseOrder(By.Ascending));
+        return winners;
+    }
+}
@@ -0,0 +1,177 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.Rule;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * finds the files added or modified since the previous run. the checkpoint is
+ * a {@link TreeIndex} of the tree as it was when the previous run started.
+ * each run refreshes it (only the folders whose modified time changed are
+ * listed again) and matches the rules on the refreshed snapshot. a match is
+ * reported if its path is not on the previous snapshot (so a file moved or
+ * copied into the tree keeping its old modified time is still reported) or
+ * it is a file modified after the previous run. the updated checkpoint only
+ * replaces the previous one once the run ends. so the changes found by a run
+ * that fails are reported again by the next one.
+ * <br>
+ * a file written in place does not change the modified time of its folder.
+ * so by default the files of the folders that were not listed again are
+ * still read (a metadata read each, no listing) unless the modified time of
+ * the folders is trusted. (files are only written on a temporary file and
+ * then moved. or never changed after written)
+ *
+ * @author Eduardo
+ */
+public final class Checkpoint {
+
+    public static final String COMMAND = "-checkpoint";
+    public static final String TRUST_COMMAND = "-trustmtime";
+
+    private static final Logger LOGGER = Logger.getLogger(Checkpoint.class.getName());
+    /**
+     * files modified this close to the start of the previous run are reported
+     * again. the modified time has a coarse resolution on some file systems.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    private final Path CheckpointFile;
+    private boolean TrustModifiedTime = false;
+    private long SinceMillis = Long.MIN_VALUE;
+
+    /**
+     * creates the checkpoint. nothing is read until {@link #run}
+     *
+     * @param checkpointFile the file where the checkpoint is stored. it is
+     * created by the first run.
+     */
+    public Checkpoint(Path checkpointFile) {
+        CheckpointFile = checkpointFile;
+    }
+
+    /**
+     * whenever or not the modified time of the folders is trusted. if a
+     * folder did not change its files are not read again. so a file written
+     * in place is not reported.
+     *
+     * @param trust true to trust the modified time of the folders
+     */
+    public void setTrustModifiedTime(boolean trust) {
+        TrustModifiedTime = trust;
+    }
+
+    /**
+     * the time the files reported by the last run were modified after.
+     *
+     * @return milliseconds since the epoch or {@link Long#MIN_VALUE} if there
+     * was no checkpoint. (every match was reported)
+     */
+    public long getSinceMillis() {
+        return SinceMillis;
+    }
+
+    /**
+     * reports the files that match the rules and were added or modified since
+     * the previous run. (all of them if there is no checkpoint yet) and
+     * updates the checkpoint.
+     *
+     * @param root the folder to search. it must be the same of the previous
+     * runs.
+     * @param rules the rules to apply on our search for files or directories.
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @throws IOException if the checkpoint is of another folder, the tree
+     * cannot be walked or the checkpoint cannot be written.
+     */
+    public void run(Path root, List<Rule> rules, BiConsumer<? super Path, ? super BasicFileAttributes> sink)
+            throws IOException {
+        var absoluteRoot = root.toAbsolutePath().normalize();
+        var pending = CheckpointFile.resolveSibling(CheckpointFile.getFileName() + ".pending");
+        if (Files.exists(CheckpointFile)) {
+            try (var previous = TreeIndex.open(CheckpointFile)) {
+                if (!previous.getRoot().equals(absoluteRoot)) {
+                    throw new IOException("the checkpoint " + CheckpointFile + " is of " + previous.getRoot());
+                }
+                var since = previous.getCreatedMillis() - RACY_MILLIS;
+                SinceMillis = since;
+                TreeIndex.refresh(CheckpointFile, pending, !TrustModifiedTime);
+                var known = new KnownEntries(previous);
+                query(absoluteRoot, pending, rules, (path, attributes) -> {
+                    //folders are only reported when new. their modified time only tells a entry changed.
+                    if (!known.contains(path)
+                            || (!attributes.isDirectory() && attributes.lastModifiedTime().toMillis() > since)) {
+                        sink.accept(path, attributes);
+                    }
+                });
+            }
+        } else {
+            SinceMillis = Long.MIN_VALUE;
+            TreeIndex.build(absoluteRoot, pending);
+            query(absoluteRoot, pending, rules, sink);
+        }
+        TreeIndex.replace(pending, CheckpointFile);
+        LOGGER.log(Level.FINE, "checkpoint {0} updated", CheckpointFile);
+    }
+
+    /**
+     * matches the rules on the pending snapshot. it is deleted if it fails.
+     */
+    private static void query(Path root, Path pending, List<Rule> rules,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) throws IOException {
+        try (var index = TreeIndex.open(pending)) {
+            index.query(root, new RuleExecutor(rules), sink);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(pending);
+            throw ex;
+        }
+    }
+
+    /**
+     * tells whenever a path was on the previous snapshot. the names of a
+     * folder are read once. the results come on pre order so only the
+     * folders of the current branch are kept.
+     */
+    private static final class KnownEntries {
+
+        private final TreeIndex Previous;
+        private final Map<Path, Set<String>> Branch = new HashMap<>();
+
+        private KnownEntries(TreeIndex previous) {
+            Previous = previous;
+        }
+
+        private boolean contains(Path path) {
+            var folder = path.getParent();
+            var names = Branch.get(folder);
+            if (names == null) {
+                //the folders left behind are never seen again.
+                Branch.keySet().removeIf(walked -> !folder.startsWith(walked));
+                names = Previous.namesIn(folder);
+                Branch.put(folder, names);
+            }
+            return names.contains(path.getFileName().toString());
+        }
+    }
+}
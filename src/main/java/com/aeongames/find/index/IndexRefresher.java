@@ -0,0 +1,202 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+
+/**
+ * writes a updated snapshot out of a previous one. a folder is only listed
+ * again if its modified time changed (a entry was added, removed or renamed)
+ * otherwise its entries are copied from the previous snapshot and only its
+ * subfolders (and if requested its files) are checked.
+ *
+ * @author Eduardo
+ */
+final class IndexRefresher {
+
+    /**
+     * folders modified this close to the time the previous snapshot was built
+     * are always listed. the modified time might not have changed yet (it has
+     * a coarse resolution on some file systems) for changes done right after
+     * the folder was read.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    private final TreeIndex Previous;
+    private final IndexWriter Writer;
+    /**
+     * whenever or not the files of the folders that did not change are read
+     * again. a file written in place does not change the modified time of
+     * its folder.
+     */
+    private final boolean RestatFiles;
+    private int Listed = 0;
+    private int Reused = 0;
+    private int Skipped = 0;
+
+    IndexRefresher(TreeIndex previous, IndexWriter writer, boolean restatFiles) {
+        Previous = previous;
+        Writer = writer;
+        RestatFiles = restatFiles;
+    }
+
+    /**
+     * writes the updated snapshot from the root.
+     */
+    void refresh() throws IOException {
+        var root = Previous.getRoot();
+        var attrs = Files.readAttributes(root, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        refreshFolder(0, root, Writer.nameOf(root), attrs);
+    }
+
+    /**
+     * writes a folder and its subtree.
+     *
+     * @param previous the index of the folder on the previous snapshot or -1
+     * if it is new.
+     */
+    private void refreshFolder(int previous, Path folder, byte[] name, BasicFileAttributes attrs) throws IOException {
+        var modified = attrs.lastModifiedTime().toMillis();
+        Writer.beginFolder(name, IndexedAttributes.flagsOf(attrs, false), attrs.size(), modified);
+        var unchanged = previous >= 0
+                && isFolder(Previous.flagsOf(previous))
+                && Previous.modifiedMillisOf(previous) == modified
+                && modified < Previous.getCreatedMillis() - RACY_MILLIS;
+        if (unchanged) {
+            Reused++;
+            reuseFolder(previous, folder);
+        } else {
+            Listed++;
+            listFolder(previous, folder);
+        }
+        Writer.endFolder();
+    }
+
+    /**
+     * copies the entries of a folder that did not change. its subfolders are
+     * still checked as they might have changed. (and its files if they are
+     * read again)
+     */
+    private void reuseFolder(int previous, Path folder) throws IOException {
+        var end = Previous.endOf(previous);
+        for (int child = previous + 1; child < end; child = Previous.endOf(child)) {
+            var name = Previous.nameBytesOf(child);
+            var flags = Previous.flagsOf(child);
+            if (!isFolder(flags) && !RestatFiles) {
+                Writer.add(name, flags, Previous.sizeOf(child), Previous.modifiedMillisOf(child));
+                continue;
+            }
+            Path path;
+            try {
+                path = folder.resolve(new String(name, StandardCharsets.UTF_8));
+            } catch (InvalidPathException ex) {
+                //it cannot be checked on this platform. keep it as it was.
+                if (isFolder(flags)) {
+                    copySubtree(child);
+                } else {
+                    Writer.add(name, flags, Previous.sizeOf(child), Previous.modifiedMillisOf(child));
+                }
+                continue;
+            }
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException ex) {
+                Skipped++;
+                continue;
+            }
+            if (attrs.isDirectory()) {
+                refreshFolder(child, path, name, attrs);
+            } else {
+                Writer.addFile(path, attrs);
+            }
+        }
+    }
+
+    /**
+     * lists a folder that changed. subfolders that already existed are
+     * matched by name with the previous snapshot so they can be reused.
+     */
+    private void listFolder(int previous, Path folder) throws IOException {
+        var known = new HashMap<String, Integer>();
+        if (previous >= 0 && isFolder(Previous.flagsOf(previous))) {
+            var end = Previous.endOf(previous);
+            for (int child = previous + 1; child < end; child = Previous.endOf(child)) {
+                if (isFolder(Previous.flagsOf(child))) {
+                    known.put(new String(Previous.nameBytesOf(child), StandardCharsets.UTF_8), child);
+                }
+            }
+        }
+        try (var FileList = Files.list(folder)) {
+            var iterator = FileList.iterator();
+            while (iterator.hasNext()) {
+                var nextfile = iterator.next();
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(nextfile, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException ex) {
+                    Skipped++;
+                    continue;
+                }
+                if (attrs.isDirectory()) {
+                    var name = Writer.nameOf(nextfile);
+                    refreshFolder(known.getOrDefault(nextfile.getFileName().toString(), -1), nextfile, name, attrs);
+                } else {
+                    Writer.addFile(nextfile, attrs);
+                }
+            }
+        } catch (IOException ex) {
+            Skipped++;
+        }
+    }
+
+    /**
+     * copies a whole subtree of the previous snapshot as it is.
+     */
+    private void copySubtree(int index) throws IOException {
+        Writer.beginFolder(Previous.nameBytesOf(index), Previous.flagsOf(index),
+                Previous.sizeOf(index), Previous.modifiedMillisOf(index));
+        var end = Previous.endOf(index);
+        for (int child = index + 1; child < end; child = Previous.endOf(child)) {
+            if (isFolder(Previous.flagsOf(child))) {
+                copySubtree(child);
+            } else {
+                Writer.add(Previous.nameBytesOf(child), Previous.flagsOf(child),
+                        Previous.sizeOf(child), Previous.modifiedMillisOf(child));
+            }
+        }
+        Writer.endFolder();
+    }
+
+    /**
+     * a real folder. (not a link to a folder, those are stored as entries)
+     */
+    private static boolean isFolder(int flags) {
+        return (flags & IndexedAttributes.DIRECTORY) != 0 && (flags & IndexedAttributes.LINK) == 0;
+    }
+
+    /**
+     * describes how many folders were listed and reused.
+     */
+    String describe() {
+        return String.format("%d folders listed, %d folders reused, %d entries could not be read",
+                Listed, Reused, Skipped);
+    }
+}
@@ -0,0 +1,233 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * writes a {@link TreeIndex} file. the entries must be provided on pre order
+ * (a folder followed by all its subtree). the records are streamed to the
+ * index file and the names to a temporary file that is appended at the end.
+ * the end of each folder subtree is only known once it is fully written so
+ * it is patched afterwards.
+ *
+ * @author Eduardo
+ */
+final class IndexWriter implements Closeable {
+
+    private final Path Root;
+    private final Path NamesFile;
+    private final FileChannel Records;
+    private final FileChannel Names;
+    private final ByteBuffer RecordBuffer = ByteBuffer.allocateDirect(1 << 20);
+    private final ByteBuffer NameBuffer = ByteBuffer.allocateDirect(1 << 20);
+    private final long RecordsOffset;
+    private final int RootLength;
+    /**
+     * when the writer was created. it is stored as the time of the snapshot.
+     * anything modified after it might not be on the snapshot.
+     */
+    private final long StartedMillis = System.currentTimeMillis();
+    private long NamesLength = 0;
+    private int Count = 0;
+    /**
+     * the record index of the folders being written.
+     */
+    private int[] OpenFolders = new int[64];
+    private int OpenCount = 0;
+    /**
+     * pairs of (record index, subtree end) to patch.
+     */
+    private int[] Patches = new int[1024];
+    private int PatchCount = 0;
+
+    /**
+     * creates the writer.
+     *
+     * @param root the absolute root folder of the tree
+     * @param indexFile the file to write
+     */
+    IndexWriter(Path root, Path indexFile) throws IOException {
+        Root = root;
+        NamesFile = indexFile.resolveSibling(indexFile.getFileName() + ".names");
+        var rootBytes = root.toString().getBytes(StandardCharsets.UTF_8);
+        RootLength = rootBytes.length;
+        RecordsOffset = (TreeIndex.HEADER_SIZE + RootLength + 7) & ~7L;
+        Records = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            Names = FileChannel.open(NamesFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException ex) {
+            Records.close();
+            throw ex;
+        }
+        Records.write(ByteBuffer.wrap(rootBytes), TreeIndex.HEADER_SIZE);
+        Records.position(RecordsOffset);
+    }
+
+    /**
+     * the depth of the entries of the folder being written. the entries of the
+     * root are 1.
+     */
+    int depth() {
+        return OpenCount;
+    }
+
+    /**
+     * writes a folder. all the entries written until {@link #endFolder()} are
+     * its subtree.
+     */
+    void beginFolder(byte[] name, int flags, long size, long modifiedMillis) throws IOException {
+        if (OpenCount == OpenFolders.length) {
+            OpenFolders = Arrays.copyOf(OpenFolders, OpenCount * 2);
+        }
+        var depth = OpenCount;
+        OpenFolders[OpenCount++] = Count;
+        add(name, depth, flags, size, modifiedMillis);
+    }
+
+    /**
+     * ends the last folder that was begun.
+     */
+    void endFolder() {
+        var index = OpenFolders[--OpenCount];
+        if (Count > index + 1) {
+            if (PatchCount + 2 > Patches.length) {
+                Patches = Arrays.copyOf(Patches, Patches.length * 2);
+            }
+            Patches[PatchCount++] = index;
+            Patches[PatchCount++] = Count;
+        }
+    }
+
+    /**
+     * writes a entry that is not a folder (or a folder that will not have
+     * entries like a link) on the current folder.
+     */
+    void add(byte[] name, int flags, long size, long modifiedMillis) throws IOException {
+        add(name, OpenCount, flags, size, modifiedMillis);
+    }
+
+    /**
+     * writes a file resolving links. so the stored attributes are the ones of
+     * the target.
+     */
+    void addFile(Path file, BasicFileAttributes attrs) throws IOException {
+        var link = attrs.isSymbolicLink();
+        if (link) {
+            //store the target attributes so the queries never read the link.
+            try {
+                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException ex) {
+                //a broken link. keep its own attributes.
+                link = false;
+            }
+        }
+        add(nameOf(file), IndexedAttributes.flagsOf(attrs, link), attrs.size(),
+                attrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * the name to store for a path.
+     */
+    byte[] nameOf(Path path) {
+        //the root has no name. its entries are on depth 1
+        return path.equals(Root) ? new byte[0] : path.getFileName().toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void add(byte[] name, int depth, int flags, long size, long modifiedMillis) throws IOException {
+        if (Count == Integer.MAX_VALUE) {
+            throw new IOException("too many entries for a tree index");
+        }
+        if (name.length > MappedFile.OVERLAP) {
+            throw new IOException("file name too long for a tree index: " + new String(name, StandardCharsets.UTF_8));
+        }
+        if (RecordBuffer.remaining() < TreeIndex.RECORD_SIZE) {
+            flush(RecordBuffer, Records);
+        }
+        //by default a entry ends right after itself. folders are patched later
+        RecordBuffer.putInt(Count + 1)
+                .putInt(depth)
+                .putInt(flags)
+                .putInt(name.length)
+                .putLong(NamesLength)
+                .putLong(size)
+                .putLong(modifiedMillis);
+        if (NameBuffer.remaining() < name.length) {
+            flush(NameBuffer, Names);
+        }
+        NameBuffer.put(name);
+        NamesLength += name.length;
+        Count++;
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * writes what is pending, patches the folders, appends the names and
+     * finally the header.
+     */
+    void finish() throws IOException {
+        if (Count == 0) {
+            throw new IOException("unable to read " + Root);
+        }
+        flush(RecordBuffer, Records);
+        flush(NameBuffer, Names);
+        var end = ByteBuffer.allocate(Integer.BYTES);
+        for (int i = 0; i < PatchCount; i += 2) {
+            end.clear();
+            end.putInt(Patches[i + 1]).flip();
+            Records.write(end, RecordsOffset + (long) Patches[i] * TreeIndex.RECORD_SIZE);
+        }
+        var namesOffset = RecordsOffset + (long) Count * TreeIndex.RECORD_SIZE;
+        var transferred = 0L;
+        while (transferred < NamesLength) {
+            transferred += Names.transferTo(transferred, NamesLength - transferred,
+                    Records.position(namesOffset + transferred));
+        }
+        var header = ByteBuffer.allocate(TreeIndex.HEADER_SIZE);
+        header.putLong(TreeIndex.MAGIC)
+                .putInt(TreeIndex.VERSION)
+                .putInt(Count)
+                .putLong(RecordsOffset)
+                .putLong(namesOffset)
+                .putLong(StartedMillis)
+                .putInt(RootLength)
+                .flip();
+        Records.write(header, 0);
+        Records.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (Records; Names) {
+            Files.deleteIfExists(NamesFile);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * the attributes of a entry as they were when the index was built. links are
+ * stored already resolved so they look like their target.
+ *
+ * @author Eduardo
+ */
+final class IndexedAttributes implements BasicFileAttributes {
+
+    static final int DIRECTORY = 1;
+    static final int REGULAR = 1 << 1;
+    static final int OTHER = 1 << 2;
+    /**
+     * the entry is a link. the other flags, size and time are of its target.
+     */
+    static final int LINK = 1 << 3;
+
+    private final int Flags;
+    private final long Size;
+    private final long ModifiedMillis;
+
+    IndexedAttributes(int flags, long size, long modifiedMillis) {
+        Flags = flags;
+        Size = size;
+        ModifiedMillis = modifiedMillis;
+    }
+
+    /**
+     * gets the flags to store for the provided attributes.
+     *
+     * @param attributes the attributes to store
+     * @param link whenever the attributes are of the target of a link
+     */
+    static int flagsOf(BasicFileAttributes attributes, boolean link) {
+        int flags = link ? LINK : 0;
+        if (attributes.isDirectory()) {
+            flags |= DIRECTORY;
+        } else if (attributes.isRegularFile()) {
+            flags |= REGULAR;
+        } else {
+            flags |= OTHER;
+        }
+        return flags;
+    }
+
+    @Override
+    public FileTime lastModifiedTime() {
+        return FileTime.fromMillis(ModifiedMillis);
+    }
+
+    /**
+     * not stored on the index. same as {@link #lastModifiedTime()}
+     */
+    @Override
+    public FileTime lastAccessTime() {
+        return lastModifiedTime();
+    }
+
+    /**
+     * not stored on the index. same as {@link #lastModifiedTime()}
+     */
+    @Override
+    public FileTime creationTime() {
+        return lastModifiedTime();
+    }
+
+    @Override
+    public boolean isRegularFile() {
+        return (Flags & REGULAR) != 0;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return (Flags & DIRECTORY) != 0;
+    }
+
+    /**
+     * links are stored resolved. so this is always false.
+     */
+    @Override
+    public boolean isSymbolicLink() {
+        return false;
+    }
+
+    @Override
+    public boolean isOther() {
+        return (Flags & OTHER) != 0;
+    }
+
+    @Override
+    public long size() {
+        return Size;
+    }
+
+    @Override
+    public Object fileKey() {
+        return null;
+    }
+}
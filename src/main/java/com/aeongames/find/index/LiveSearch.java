@@ -0,0 +1,321 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import com.aeongames.find.RuleExecutor;
+import com.aeongames.find.Rules.Rule;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * a search that keeps its results up to date. the tree is walked once and
+ * each folder walked is registered on a {@link WatchService}. after that only
+ * the entries the file system reports as created, modified or deleted are
+ * checked again. so keeping the results costs as much as the amount of
+ * changes instead of walking the tree again.
+ * <p>
+ * the results and the watched folders are kept sorted folder by folder (see
+ * {@link #BY_FOLDER}) so the subtree of a path is a single range. a deleted
+ * folder (or one that lost events) only touches its own subtree.
+ *
+ * @author Eduardo
+ */
+public final class LiveSearch implements Closeable {
+
+    /**
+     * receives the changes on the results. it is called from the thread that
+     * watches the tree (or the one that calls {@link #start()} for the
+     * results of the first walk)
+     */
+    public interface Listener {
+
+        /**
+         * a path now matches the rules.
+         *
+         * @param path the path that was added to the results.
+         */
+        void added(Path path);
+
+        /**
+         * a path no longer matches the rules (or was deleted)
+         *
+         * @param path the path that was removed from the results.
+         */
+        void removed(Path path);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(LiveSearch.class.getName());
+
+    private final Path Base;
+    private final RuleExecutor Executor;
+    private final Listener Changes;
+    private final WatchService Watcher;
+    /**
+     * sorts the paths name by name. so a path is followed by its whole
+     * subtree. (the plain order of the paths puts "a-b" between "a" and
+     * "a/b")
+     */
+    private static final Comparator<Path> BY_FOLDER = (first, second) -> {
+        var count = Math.min(first.getNameCount(), second.getNameCount());
+        for (int i = 0; i < count; i++) {
+            var order = first.getName(i).compareTo(second.getName(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(first.getNameCount(), second.getNameCount());
+    };
+
+    private final Map<WatchKey, Path> Folders = new ConcurrentHashMap<>();
+    /**
+     * the key of each watched folder. the reverse of {@link #Folders}
+     */
+    private final NavigableMap<Path, WatchKey> Watched = new ConcurrentSkipListMap<>(BY_FOLDER);
+    private final NavigableSet<Path> Results = new ConcurrentSkipListSet<>(BY_FOLDER);
+    private Thread WatchThread;
+
+    /**
+     * creates the search. nothing is walked until {@link #start()}
+     *
+     * @param basePath the folder to search and watch
+     * @param rules the rules to apply on our search for files or directories.
+     * @param listener the listener for the changes on the results. can be null
+     * @throws IOException if the watch service cannot be created.
+     */
+    public LiveSearch(Path basePath, List<Rule> rules, Listener listener) throws IOException {
+        Base = basePath.toAbsolutePath().normalize();
+        Executor = new RuleExecutor(rules);
+        Executor.setIgnoreIOExceptions(true);
+        Changes = listener;
+        Watcher = Base.getFileSystem().newWatchService();
+    }
+
+    /**
+     * walks the tree (registering each folder) and then starts watching it on
+     * a background thread.
+     *
+     * @throws IOException if the tree cannot be walked.
+     */
+    public synchronized void start() throws IOException {
+        if (WatchThread != null) {
+            throw new IllegalStateException("the search was already started");
+        }
+        walk(Base, 0);
+        WatchThread = Thread.ofPlatform().name("find-live-search").daemon().start(this::watch);
+    }
+
+    /**
+     * the current results.
+     *
+     * @return a copy of the paths that currently match the rules.
+     */
+    public Set<Path> getResults() {
+        return Set.copyOf(Results);
+    }
+
+    /**
+     * waits until the search is closed.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = WatchThread;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * stops watching the tree.
+     */
+    @Override
+    public void close() throws IOException {
+        Watcher.close();
+    }
+
+    /**
+     * registers the folder and checks all its entries.
+     *
+     * @param depth the depth of the folder (the base folder is 0)
+     */
+    private void walk(Path folder, int depth) throws IOException {
+        var key = folder.register(Watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Folders.put(key, folder);
+        Watched.put(folder, key);
+        try (var FileList = Files.list(folder)) {
+            var iterator = FileList.iterator();
+            while (iterator.hasNext()) {
+                check(iterator.next(), depth + 1, true);
+            }
+        }
+    }
+
+    /**
+     * checks a entry against the rules. updating the results.
+     *
+     * @param descend whenever to walk the entry if it is a new folder.
+     */
+    private void check(Path entry, int depth, boolean descend) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException ex) {
+            //it is gone already. the delete event will clean it up.
+            return;
+        }
+        if (Executor.MatchRule(entry, attributes, depth)) {
+            if (Results.add(entry) && Changes != null) {
+                Changes.added(entry);
+            }
+        } else if (Results.remove(entry) && Changes != null) {
+            Changes.removed(entry);
+        }
+        if (descend && Executor.ShouldDescend(entry, attributes, depth)) {
+            try {
+                walk(entry, depth);
+            } catch (IOException ex) {
+                LOGGER.log(Level.FINE, "unable to watch " + entry, ex);
+            }
+        }
+    }
+
+    /**
+     * removes a deleted entry and everything under it from the results.
+     */
+    private void remove(Path entry) {
+        //the subtree is the range that starts on the entry.
+        for (var iterator = Results.tailSet(entry, true).iterator(); iterator.hasNext();) {
+            var result = iterator.next();
+            if (!result.startsWith(entry)) {
+                break;
+            }
+            iterator.remove();
+            if (Changes != null) {
+                Changes.removed(result);
+            }
+        }
+        for (var iterator = Watched.tailMap(entry, true).entrySet().iterator(); iterator.hasNext();) {
+            var folder = iterator.next();
+            if (!folder.getKey().startsWith(entry)) {
+                break;
+            }
+            iterator.remove();
+            Folders.remove(folder.getValue());
+            folder.getValue().cancel();
+        }
+    }
+
+    /**
+     * the depth of a path under the base folder. (the base folder is 0)
+     */
+    private int depthOf(Path path) {
+        return path.equals(Base) ? 0 : Base.relativize(path).getNameCount();
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = Watcher.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            var folder = Folders.get(key);
+            if (folder == null) {
+                key.cancel();
+                continue;
+            }
+            try {
+                for (var event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        //some events were lost. check the whole folder again.
+                        rescan(folder);
+                        continue;
+                    }
+                    var entry = folder.resolve((Path) event.context());
+                    var depth = depthOf(entry);
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        remove(entry);
+                    } else {
+                        check(entry, depth, event.kind() == StandardWatchEventKinds.ENTRY_CREATE);
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "unable to update the results for " + folder, ex);
+            }
+            if (!key.reset()) {
+                var gone = Folders.remove(key);
+                if (gone != null) {
+                    Watched.remove(gone, key);
+                }
+            }
+        }
+    }
+
+    /**
+     * checks all the entries of a folder again. removes the results (and
+     * watched folders) of the folder that no longer exist.
+     */
+    private void rescan(Path folder) throws IOException {
+        var gone = new ArrayList<Path>();
+        for (var result : Results.tailSet(folder, false)) {
+            if (!result.startsWith(folder)) {
+                break;
+            }
+            if (folder.equals(result.getParent()) && !Files.exists(result, LinkOption.NOFOLLOW_LINKS)) {
+                gone.add(result);
+            }
+        }
+        for (var watched : Watched.tailMap(folder, false).keySet()) {
+            if (!watched.startsWith(folder)) {
+                break;
+            }
+            if (folder.equals(watched.getParent()) && !Files.exists(watched, LinkOption.NOFOLLOW_LINKS)) {
+                gone.add(watched);
+            }
+        }
+        gone.forEach(this::remove);
+        var depth = depthOf(folder);
+        try (var FileList = Files.list(folder)) {
+            var iterator = FileList.iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                check(entry, depth + 1, !Watched.containsKey(entry));
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * a read only memory mapped file that can be larger than the 2GB limit of a
+ * single {@link MappedByteBuffer}. the file is mapped on chunks that overlap
+ * so any read smaller than the overlap never crosses a chunk.
+ *
+ * @author Eduardo
+ */
+final class MappedFile implements Closeable {
+
+    private static final long CHUNK = 1L << 30;
+    /**
+     * the biggest read supported. bigger than any file name.
+     */
+    static final int OVERLAP = 1 << 16;
+
+    private final FileChannel Channel;
+    private final MappedByteBuffer[] Chunks;
+    private final long Size;
+
+    MappedFile(Path file) throws IOException {
+        Channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            Size = Channel.size();
+            var count = (int) Math.max(1, (Size + CHUNK - 1) / CHUNK);
+            Chunks = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                var start = i * CHUNK;
+                var length = Math.min(CHUNK + OVERLAP, Size - start);
+                Chunks[i] = Channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(0, length));
+            }
+        } catch (IOException | RuntimeException ex) {
+            Channel.close();
+            throw ex;
+        }
+    }
+
+    long size() {
+        return Size;
+    }
+
+    int getInt(long position) {
+        return Chunks[(int) (position / CHUNK)].getInt((int) (position % CHUNK));
+    }
+
+    long getLong(long position) {
+        return Chunks[(int) (position / CHUNK)].getLong((int) (position % CHUNK));
+    }
+
+    /**
+     * reads length bytes (at most {@link #OVERLAP}) into the destination.
+     */
+    void get(long position, byte[] destination, int length) {
+        Chunks[(int) (position / CHUNK)].get((int) (position % CHUNK), destination, 0, length);
+    }
+
+    /**
+     * closes the channel. the mapped memory is released once the buffers are
+     * collected.
+     */
+    @Override
+    public void close() throws IOException {
+        Channel.close();
+    }
+}
@@ -0,0 +1,448 @@
+/* 
+ *  Copyright © 2025 Eduardo Vindas Cordoba. All rights reserved.
+ *  
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ * 
+ */
+package com.aeongames.find.index;
+
+import com.aeongames.find.RuleExecutor;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * a snapshot of a folder tree stored on a compact binary file that is memory
+ * mapped to be queried. so repeated searches over the same tree run against
+ * the snapshot instead of listing the file system again.
+ * <p>
+ * the file has a header, a fixed size record per entry and the entry names.
+ * the records are on pre order (a folder is followed by all its subtree) and
+ * each one knows where its subtree ends. so a pruned folder is skipped on a
+ * single step. the record holds the depth, type, size and modified time. the
+ * full path is rebuilt from the names while walking the records.
+ * <p>
+ * the snapshot is not updated by itself. use {@link #refresh(Path)} to update
+ * it (listing only the folders that changed) or {@link #build(Path, Path)} to
+ * build it again.
+ *
+ * @author Eduardo
+ */
+public final class TreeIndex implements Closeable {
+
+    static final long MAGIC = 0x46494E4449445801L;//"FINDIDX" + 1
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    /**
+     * end (int) depth (int) flags (int) name length (int) name offset (long)
+     * size (long) modified millis (long)
+     */
+    static final int RECORD_SIZE = 40;
+
+    private static final Logger LOGGER = Logger.getLogger(TreeIndex.class.getName());
+    /**
+     * how many times a snapshot that is still mapped is tried to be replaced.
+     * see {@link #replace(Path, Path)}
+     */
+    private static final int REPLACE_ATTEMPTS = 10;
+    private static final long REPLACE_WAIT_MILLIS = 50;
+
+    /**
+     * walks the tree and writes a new snapshot. the snapshot is written on a
+     * temporary file that replaces the previous one once complete. so a
+     * snapshot being queried is never seen half written.
+     *
+     * @param root the folder to snapshot
+     * @param indexFile the file where the snapshot is stored
+     * @throws IOException if the tree cannot be walked or the snapshot cannot
+     * be written
+     */
+    public static void build(Path root, Path indexFile) throws IOException {
+        var absoluteRoot = root.toAbsolutePath().normalize();
+        var temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        var skipped = new int[1];
+        try (var writer = new IndexWriter(absoluteRoot, temporary)) {
+            Files.walkFileTree(absoluteRoot, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    writer.beginFolder(writer.nameOf(dir), IndexedAttributes.flagsOf(attrs, false),
+                            attrs.size(), attrs.lastModifiedTime().toMillis());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    writer.addFile(file, attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    skipped[0]++;
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    if (exc != null) {
+                        skipped[0]++;
+                    }
+                    writer.endFolder();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            writer.finish();
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+        replace(temporary, indexFile);
+        if (skipped[0] > 0) {
+            LOGGER.log(Level.WARNING, "{0} entries could not be read and are not on the index of {1}",
+                    new Object[]{skipped[0], absoluteRoot});
+        }
+    }
+
+    /**
+     * updates a existing snapshot. only the folders whose modified time
+     * changed since the snapshot was built are listed again. the other folders
+     * are only checked (a single metadata read) and their entries are copied
+     * from the previous snapshot. so the cost depends on how much the tree
+     * changed instead of its size. (the size and time of files on folders that
+     * were not listed again are the ones of the previous snapshot)
+     *
+     * @param indexFile the file where the snapshot is stored
+     * @throws IOException if there is no snapshot, the tree cannot be walked
+     * or the snapshot cannot be written
+     */
+    public static void refresh(Path indexFile) throws IOException {
+        refresh(indexFile, indexFile, false);
+    }
+
+    /**
+     * writes a updated snapshot of a existing one on another file. (or the
+     * same file) see {@link #refresh(Path)}
+     *
+     * @param indexFile the file where the previous snapshot is stored
+     * @param target the file where the updated snapshot is written
+     * @param restatFiles whenever or not the files on folders that were not
+     * listed again are read again. (so a file written in place is updated)
+     * @throws IOException if there is no snapshot, the tree cannot be walked
+     * or the snapshot cannot be written
+     */
+    static void refresh(Path indexFile, Path target, boolean restatFiles) throws IOException {
+        if (!Files.exists(indexFile)) {
+            throw new IOException("there is no index to refresh at " + indexFile);
+        }
+        var temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        IndexRefresher refresher;
+        try (var previous = open(indexFile); var writer = new IndexWriter(previous.getRoot(), temporary)) {
+            refresher = new IndexRefresher(previous, writer, restatFiles);
+            refresher.refresh();
+            writer.finish();
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+        //the previous snapshot is closed. but it might still be mapped.
+        replace(temporary, target);
+        LOGGER.log(Level.FINE, "index refreshed: {0}", refresher.describe());
+    }
+
+    /**
+     * moves a snapshot that was just written over the one it replaces. a
+     * closed snapshot stays mapped until its buffers are collected and a
+     * mapped file cannot be replaced on some platforms (Windows) so if the
+     * move is denied the buffers are released and the move is retried.
+     *
+     * @param written the new snapshot. it is deleted if it cannot be moved.
+     * @param target the file it replaces.
+     * @throws IOException if it cannot be moved.
+     */
+    static void replace(Path written, Path target) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                Files.move(written, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return;
+            } catch (FileSystemException ex) {
+                //denied. (or "a user mapped section is open" on Windows) the other errors do not go away.
+                if (attempt >= REPLACE_ATTEMPTS || ex instanceof NoSuchFileException
+                        || ex instanceof AtomicMoveNotSupportedException) {
+                    Files.deleteIfExists(written);
+                    throw ex;
+                }
+                //nothing references the closed snapshots. a collection unmaps them.
+                System.gc();
+                try {
+                    Thread.sleep(REPLACE_WAIT_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    Files.deleteIfExists(written);
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * maps a existing snapshot to be queried.
+     *
+     * @param indexFile the file where the snapshot is stored
+     * @return the mapped snapshot. it must be closed after use.
+     * @throws IOException if the file cannot be read or it is not a snapshot
+     */
+    public static TreeIndex open(Path indexFile) throws IOException {
+        var file = new MappedFile(indexFile);
+        try {
+            return new TreeIndex(file);
+        } catch (IOException | RuntimeException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    private final MappedFile File;
+    private final Path Root;
+    private final int EntryCount;
+    private final long RecordsOffset;
+    private final long NamesOffset;
+    private final long CreatedMillis;
+
+    private TreeIndex(MappedFile file) throws IOException {
+        File = file;
+        if (file.size() < HEADER_SIZE || file.getLong(0) != MAGIC) {
+            throw new IOException("the file is not a tree index");
+        }
+        if (file.getInt(8) != VERSION) {
+            throw new IOException("unsupported tree index version " + file.getInt(8));
+        }
+        EntryCount = file.getInt(12);
+        RecordsOffset = file.getLong(16);
+        NamesOffset = file.getLong(24);
+        CreatedMillis = file.getLong(32);
+        var rootBytes = new byte[file.getInt(40)];
+        file.get(HEADER_SIZE, rootBytes, rootBytes.length);
+        Root = Path.of(new String(rootBytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * the folder this snapshot was built from (absolute)
+     *
+     * @return the root folder of the snapshot
+     */
+    public Path getRoot() {
+        return Root;
+    }
+
+    /**
+     * the amount of entries on the snapshot (including the root)
+     *
+     * @return the amount of entries
+     */
+    public int size() {
+        return EntryCount;
+    }
+
+    /**
+     * when was the snapshot built. (milliseconds since the epoch) it is the
+     * time the walk started. so anything modified after it might not be on
+     * the snapshot.
+     *
+     * @return the time the snapshot was built
+     */
+    public long getCreatedMillis() {
+        return CreatedMillis;
+    }
+
+    /**
+     * runs the rules of the executor over the snapshot. the same way the
+     * executor would do it over the file system. but without touching it.
+     * (links are stored resolved so the rules never need to read them)
+     *
+     * @param basePath the folder from which start the search. it must be the
+     * root of the snapshot or a folder under it.
+     * @param executor the executor that holds the rules to match
+     * @param sink the consumer that receives each path that matches the rules
+     * and its attributes
+     * @throws IOException if the base path is not on this snapshot or a rule
+     * failed to read the file metadata (and the executor does not ignore it)
+     */
+    public void query(Path basePath, RuleExecutor executor,
+            BiConsumer<? super Path, ? super BasicFileAttributes> sink) throws IOException {
+        var base = basePath.toAbsolutePath().normalize();
+        var baseIndex = locate(base);
+        if (baseIndex < 0) {
+            throw new IOException(basePath + " is not a folder on the index of " + Root);
+        }
+        //with the limit, timeout and cancel of the executor.
+        executor.ExecuteSearch(guarded -> query(base, baseIndex, executor, guarded), sink);
+    }
+
+    private void query(Path base, int baseIndex, RuleExecutor executor,
+            BiConsumer<Path, BasicFileAttributes> sink) throws IOException {
+        var baseDepth = depthOf(baseIndex);
+        //the parent folder of each depth on the current branch
+        var parents = new Path[16];
+        parents[0] = base;
+        var end = endOf(baseIndex);
+        var nameBuffer = new byte[256];
+        var unrepresentable = 0;
+        for (int i = baseIndex + 1; i < end && !executor.isStopping();) {
+            var record = recordOffset(i);
+            var depth = File.getInt(record + 4) - baseDepth;
+            var nameLength = File.getInt(record + 12);
+            if (nameLength > nameBuffer.length) {
+                nameBuffer = new byte[nameLength];
+            }
+            File.get(NamesOffset + File.getLong(record + 16), nameBuffer, nameLength);
+            Path path;
+            try {
+                path = parents[depth - 1].resolve(new String(nameBuffer, 0, nameLength, StandardCharsets.UTF_8));
+            } catch (InvalidPathException ex) {
+                //the name cannot be represented on the platform encoding. skip it (and its subtree)
+                unrepresentable++;
+                i = File.getInt(record);
+                continue;
+            }
+            var attributes = new IndexedAttributes(File.getInt(record + 8),
+                    File.getLong(record + 24), File.getLong(record + 32));
+            if (executor.MatchRule(path, attributes, depth)) {
+                sink.accept(path, attributes);
+            }
+            var next = File.getInt(record);
+            if (next > i + 1 && executor.ShouldDescend(path, attributes, depth)) {
+                if (depth >= parents.length) {
+                    parents = Arrays.copyOf(parents, parents.length * 2);
+                }
+                parents[depth] = path;
+                i++;
+            } else {
+                i = next;
+            }
+        }
+        if (unrepresentable > 0) {
+            LOGGER.log(Level.WARNING, "{0} entries of the index of {1} have names that cannot be represented as a path"
+                    + " on this platform encoding and were skipped", new Object[]{unrepresentable, Root});
+        }
+    }
+
+    /**
+     * the names of the entries of a folder of the snapshot.
+     *
+     * @param folder the absolute path of the folder.
+     * @return the names. empty if the folder is not on the snapshot.
+     */
+    Set<String> namesIn(Path folder) {
+        var index = locate(folder);
+        if (index < 0) {
+            return Set.of();
+        }
+        var names = new HashSet<String>();
+        var end = endOf(index);
+        for (int child = index + 1; child < end; child = endOf(child)) {
+            names.add(nameOf(child));
+        }
+        return names;
+    }
+
+    /**
+     * finds the record of a folder by walking down from the root.
+     *
+     * @return the record index or -1 if it is not on the snapshot.
+     */
+    private int locate(Path folder) {
+        if (!folder.startsWith(Root)) {
+            return -1;
+        }
+        var current = 0;
+        for (var component : Root.relativize(folder)) {
+            var name = component.toString();
+            if (name.isEmpty()) {
+                continue;
+            }
+            var found = -1;
+            var end = endOf(current);
+            //hop over the children. each one ends where its next sibling starts
+            for (int child = current + 1; child < end; child = endOf(child)) {
+                if (nameOf(child).equals(name)) {
+                    found = child;
+                    break;
+                }
+            }
+            if (found < 0) {
+                return -1;
+            }
+            current = found;
+        }
+        return (flagsOf(current) & IndexedAttributes.DIRECTORY) != 0 ? current : -1;
+    }
+
+    private long recordOffset(int index) {
+        return RecordsOffset + (long) index * RECORD_SIZE;
+    }
+
+    /**
+     * the index where the subtree of the entry ends (exclusive). for entries
+     * that are not folders it is the next index.
+     */
+    int endOf(int index) {
+        return File.getInt(recordOffset(index));
+    }
+
+    int depthOf(int index) {
+        return File.getInt(recordOffset(index) + 4);
+    }
+
+    int flagsOf(int index) {
+        return File.getInt(recordOffset(index) + 8);
+    }
+
+    long sizeOf(int index) {
+        return File.getLong(recordOffset(index) + 24);
+    }
+
+    long modifiedMillisOf(int index) {
+        return File.getLong(recordOffset(index) + 32);
+    }
+
+    /**
+     * the name of the entry as stored (UTF-8)
+     */
+    byte[] nameBytesOf(int index) {
+        var record = recordOffset(index);
+        var bytes = new byte[File.getInt(record + 12)];
+        File.get(NamesOffset + File.getLong(record + 16), bytes, bytes.length);
+        return bytes;
+    }
+
+    private String nameOf(int index) {
+        return new String(nameBytesOf(index), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        File.close();
+    }
+}
@@ -20,5 +20,9 @@ module com.aeongames.find {
     requires java.base;
     requires transitive java.desktop;//maybe not required. 
     requires transitive java.logging;
+    requires transitive java.management;
+    requires jdk.jfr;
     exports com.aeongames.find;
+    exports com.aeongames.find.index;
+    exports com.aeongames.find.analysis;
 }